@@ -0,0 +1,15 @@
+#!/usr/bin/env bash
+# Starts the web server with the AppCDS archive produced by `mvn -Pappcds package`.
+# The class path must be exactly the one used for training, so the jar is referenced the same way.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAR=target/smart-booking-1.0.0.jar
+ARCHIVE=target/smart-booking.jsa
+
+if [[ ! -f "$ARCHIVE" ]]; then
+    echo "No CDS archive at $ARCHIVE; build it with: mvn -Pappcds package" >&2
+    exit 1
+fi
+
+exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -cp "$JAR" com.smartbooking.web.WebServer "$@"
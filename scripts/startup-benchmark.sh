@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Compares time-to-ready of the web server with and without the AppCDS archive.
+# Each run starts the server, polls /api/health/ready until it answers 200 and stops it again.
+# Usage: scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+JAR=target/smart-booking-1.0.0.jar
+ARCHIVE=target/smart-booking.jsa
+PORT=8080
+
+now_ms() {
+    date +%s%3N
+}
+
+measure() {
+    local start pid elapsed
+    start=$(now_ms)
+    java "$@" -cp "$JAR" com.smartbooking.web.WebServer > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:$PORT/api/health/ready" > /dev/null; do
+        sleep 0.01
+    done
+    elapsed=$(( $(now_ms) - start ))
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$elapsed"
+}
+
+report() {
+    local label=$1
+    shift
+    local total=0 best=999999 ms
+    for _ in $(seq "$RUNS"); do
+        ms=$(measure "$@")
+        total=$(( total + ms ))
+        (( ms < best )) && best=$ms
+    done
+    printf '%-8s avg %5d ms   best %5d ms   (%d runs)\n' "$label" $(( total / RUNS )) "$best" "$RUNS"
+}
+
+report cold -Xshare:off
+if [[ -f "$ARCHIVE" ]]; then
+    report cds -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto
+else
+    echo "No CDS archive at $ARCHIVE; build it with: mvn -Pappcds package" >&2
+fi
@@ -2,22 +2,33 @@ package com.smartbooking;
 
 import com.smartbooking.service.AppBootstrap;
 import com.smartbooking.service.AppServices;
+import com.smartbooking.service.StartupTimings;
 import com.smartbooking.ui.ConsoleUI;
 import com.smartbooking.ui.FxApp;
+import com.smartbooking.web.WebServer;
 import javafx.application.Application;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class App {
     public static void main(String[] args) {
-        AppServices services = AppBootstrap.initialize();
-
-        // Start WebServer in background for Web Client
-        new Thread(() -> {
-            try {
-                com.smartbooking.web.WebServer.start(services, 8080);
-            } catch (Exception e) {
-                System.err.println("Failed to start WebServer: " + e.getMessage());
-            }
-        }).start();
+        // The web server answers health checks while the rest of the application is still initializing
+        StartupTimings timings = new StartupTimings();
+        CompletableFuture<AppServices> startup = AppBootstrap.initializeAsync(timings);
+        try {
+            WebServer.start(startup, timings, 8080);
+        } catch (Exception e) {
+            System.err.println("Failed to start WebServer: " + e.getMessage());
+        }
+        AppServices services;
+        try {
+            services = startup.join();
+        } catch (CompletionException e) {
+            System.err.println("Startup failed: " + e.getCause());
+            System.exit(1);
+            return;
+        }
 
         if (args.length > 0 && "cli".equalsIgnoreCase(args[0])) {
             ConsoleUI ui = new ConsoleUI(
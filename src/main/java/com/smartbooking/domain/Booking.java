@@ -17,7 +17,9 @@ public class Booking implements BookingSubject {
     private final double price;
     private BookingStatus status;
     private final LocalDateTime createdAt;
-    private final List<BookingObserver> observers = new ArrayList<>();
+    private final LocalDateTime expiresAt;
+    // Created on the first addObserver; bookings read for listings and checks never get one
+    private List<BookingObserver> observers;
 
     public Booking(long id, long userId, long resourceId, LocalDateTime startTime,
             LocalDateTime endTime, double price, BookingStatus status, LocalDateTime createdAt) {
@@ -26,6 +28,12 @@ public class Booking implements BookingSubject {
 
     public Booking(long id, long userId, String username, long resourceId, LocalDateTime startTime,
             LocalDateTime endTime, double price, BookingStatus status, LocalDateTime createdAt) {
+        this(id, userId, username, resourceId, startTime, endTime, price, status, createdAt, null);
+    }
+
+    public Booking(long id, long userId, String username, long resourceId, LocalDateTime startTime,
+            LocalDateTime endTime, double price, BookingStatus status, LocalDateTime createdAt,
+            LocalDateTime expiresAt) {
         this.id = id;
         this.userId = userId;
         this.username = username;
@@ -35,6 +43,7 @@ public class Booking implements BookingSubject {
         this.price = price;
         this.status = status;
         this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
     }
 
     public long getId() {
@@ -73,6 +82,10 @@ public class Booking implements BookingSubject {
         return createdAt;
     }
 
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
     public void transitionTo(BookingStatus newStatus, BookingStateFactory stateFactory) {
         BookingState currentState = stateFactory.getState(status);
         if (!currentState.canTransitionTo(newStatus)) {
@@ -85,17 +98,28 @@ public class Booking implements BookingSubject {
 
     @Override
     public void addObserver(BookingObserver observer) {
-        if (observer != null && !observers.contains(observer)) {
+        if (observer == null) {
+            return;
+        }
+        if (observers == null) {
+            observers = new ArrayList<>(4);
+        }
+        if (!observers.contains(observer)) {
             observers.add(observer);
         }
     }
 
     @Override
     public void removeObserver(BookingObserver observer) {
-        observers.remove(observer);
+        if (observers != null) {
+            observers.remove(observer);
+        }
     }
 
     private void notifyObservers(BookingStatus oldStatus, BookingStatus newStatus) {
+        if (observers == null) {
+            return;
+        }
         for (BookingObserver observer : observers) {
             observer.onBookingStatusChanged(this, oldStatus, newStatus);
         }
@@ -2,4 +2,10 @@ package com.smartbooking.domain;
 
 public interface BookingObserver {
     void onBookingStatusChanged(Booking booking, BookingStatus oldStatus, BookingStatus newStatus);
+
+    /**
+     * The booking's times have been changed; {@code booking} carries the new ones.
+     */
+    default void onBookingMoved(Booking booking) {
+    }
 }
@@ -0,0 +1,47 @@
+package com.smartbooking.domain;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingSeries {
+    private final long id;
+    private final long userId;
+    private final long resourceId;
+    private final RecurrenceRule rule;
+    private final LocalDateTime createdAt;
+    private final List<Booking> occurrences;
+
+    public BookingSeries(long id, long userId, long resourceId, RecurrenceRule rule, LocalDateTime createdAt,
+            List<Booking> occurrences) {
+        this.id = id;
+        this.userId = userId;
+        this.resourceId = resourceId;
+        this.rule = rule;
+        this.createdAt = createdAt;
+        this.occurrences = occurrences;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getResourceId() {
+        return resourceId;
+    }
+
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<Booking> getOccurrences() {
+        return occurrences;
+    }
+}
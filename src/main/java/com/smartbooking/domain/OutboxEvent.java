@@ -0,0 +1,50 @@
+package com.smartbooking.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * A side effect recorded in the same transaction as the change that caused it and delivered later
+ * by the outbox relay. {@code action} is only set for audit events.
+ */
+public class OutboxEvent {
+    private final long id;
+    private final OutboxEventType type;
+    private final long userId;
+    private final String action;
+    private final String payload;
+    private final LocalDateTime createdAt;
+
+    public OutboxEvent(long id, OutboxEventType type, long userId, String action, String payload,
+            LocalDateTime createdAt) {
+        this.id = id;
+        this.type = type;
+        this.userId = userId;
+        this.action = action;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public OutboxEventType getType() {
+        return type;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.smartbooking.domain;
+
+public enum OutboxEventType {
+    NOTIFICATION,
+    AUDIT,
+    USAGE
+}
@@ -0,0 +1,6 @@
+package com.smartbooking.domain;
+
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY
+}
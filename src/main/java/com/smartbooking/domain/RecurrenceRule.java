@@ -0,0 +1,63 @@
+package com.smartbooking.domain;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecurrenceRule {
+    public static final int MAX_OCCURRENCES = 366;
+
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private final LocalDate until;
+
+    public RecurrenceRule(RecurrenceFrequency frequency, int interval, LocalDate until) {
+        if (frequency == null || until == null) {
+            throw new IllegalArgumentException("Frequency and end date are required");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1");
+        }
+        this.frequency = frequency;
+        this.interval = interval;
+        this.until = until;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    public List<Timeslot> expand(Timeslot first) {
+        if (until.isBefore(first.getStart().toLocalDate())) {
+            throw new IllegalArgumentException("Series must end on or after its first occurrence");
+        }
+        List<Timeslot> occurrences = new ArrayList<>();
+        LocalDateTime start = first.getStart();
+        LocalDateTime end = first.getEnd();
+        while (!start.toLocalDate().isAfter(until)) {
+            if (occurrences.size() == MAX_OCCURRENCES) {
+                throw new IllegalArgumentException("Series exceeds " + MAX_OCCURRENCES + " occurrences");
+            }
+            occurrences.add(new Timeslot(start, end));
+            start = next(start);
+            end = next(end);
+        }
+        if (occurrences.size() > 1 && occurrences.get(0).getEnd().isAfter(occurrences.get(1).getStart())) {
+            throw new IllegalArgumentException("Series occurrences overlap each other");
+        }
+        return occurrences;
+    }
+
+    private LocalDateTime next(LocalDateTime time) {
+        return frequency == RecurrenceFrequency.DAILY ? time.plusDays(interval) : time.plusWeeks(interval);
+    }
+}
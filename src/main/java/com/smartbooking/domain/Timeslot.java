@@ -4,6 +4,12 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 public class Timeslot {
+    /**
+     * Upper bound on a single booking. Overlap queries rely on it to bound start_time from below, which
+     * lets Postgres prune booking partitions.
+     */
+    public static final Duration MAX_DURATION = Duration.ofDays(31);
+
     private final LocalDateTime start;
     private final LocalDateTime end;
 
@@ -11,6 +17,9 @@ public class Timeslot {
         if (start == null || end == null || !end.isAfter(start)) {
             throw new IllegalArgumentException("Invalid timeslot");
         }
+        if (Duration.between(start, end).compareTo(MAX_DURATION) > 0) {
+            throw new IllegalArgumentException("Timeslot cannot be longer than " + MAX_DURATION.toDays() + " days");
+        }
         this.start = start;
         this.end = end;
     }
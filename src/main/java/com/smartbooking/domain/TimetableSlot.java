@@ -0,0 +1,44 @@
+package com.smartbooking.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for a resource timetable: only what is needed to draw an occupied slot. Unlike
+ * {@link Booking} it carries no price, timestamps or observers.
+ */
+public class TimetableSlot {
+    private final long id;
+    private final long userId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final BookingStatus status;
+
+    public TimetableSlot(long id, long userId, LocalDateTime startTime, LocalDateTime endTime,
+            BookingStatus status) {
+        this.id = id;
+        this.userId = userId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,93 @@
+package com.smartbooking.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booked minutes, bookings and net revenue of one resource or resource type in one time bucket. Bookings and
+ * revenue count towards the bucket a booking starts in; booked minutes are split across the buckets it spans.
+ * The same type carries the deltas that are added to the stored totals.
+ */
+public class UsageAggregate {
+    public enum Scope {
+        RESOURCE,
+        TYPE
+    }
+
+    private final Scope scope;
+    private final String scopeKey;
+    private final UsageGranularity granularity;
+    private final LocalDateTime bucketStart;
+    private final long bookedMinutes;
+    private final int bookings;
+    private final double revenue;
+    private final long capacityMinutes;
+
+    public UsageAggregate(Scope scope, String scopeKey, UsageGranularity granularity, LocalDateTime bucketStart,
+            long bookedMinutes, int bookings, double revenue) {
+        this(scope, scopeKey, granularity, bucketStart, bookedMinutes, bookings, revenue, 0L);
+    }
+
+    private UsageAggregate(Scope scope, String scopeKey, UsageGranularity granularity, LocalDateTime bucketStart,
+            long bookedMinutes, int bookings, double revenue, long capacityMinutes) {
+        this.scope = scope;
+        this.scopeKey = scopeKey;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+        this.bookedMinutes = bookedMinutes;
+        this.bookings = bookings;
+        this.revenue = revenue;
+        this.capacityMinutes = capacityMinutes;
+    }
+
+    /**
+     * The same totals measured against {@code capacityMinutes} of bookable time in the bucket.
+     */
+    public UsageAggregate withCapacity(long capacityMinutes) {
+        return new UsageAggregate(scope, scopeKey, granularity, bucketStart, bookedMinutes, bookings, revenue,
+                capacityMinutes);
+    }
+
+    public UsageAggregate plus(long minutes, int bookingCount, double amount) {
+        return new UsageAggregate(scope, scopeKey, granularity, bucketStart, bookedMinutes + minutes,
+                bookings + bookingCount, revenue + amount, capacityMinutes);
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public String getScopeKey() {
+        return scopeKey;
+    }
+
+    public UsageGranularity getGranularity() {
+        return granularity;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public long getBookedMinutes() {
+        return bookedMinutes;
+    }
+
+    public int getBookings() {
+        return bookings;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public long getCapacityMinutes() {
+        return capacityMinutes;
+    }
+
+    /**
+     * Share of the bucket's capacity that was booked, or 0 when the capacity is unknown.
+     */
+    public double getUtilization() {
+        return capacityMinutes == 0 ? 0.0 : (double) bookedMinutes / capacityMinutes;
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartbooking.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to the usage aggregates caused by one booking: {@code bookings} is +1 when the booking starts
+ * occupying its slot and -1 when it stops, and {@code revenue} is a payment (positive) or refund (negative).
+ * Encoded as {@code <resourceId>;<start>;<end>;<bookings>;<revenue>} when it travels through the outbox.
+ */
+public class UsageChange {
+    private final long resourceId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final int bookings;
+    private final double revenue;
+
+    public UsageChange(long resourceId, LocalDateTime startTime, LocalDateTime endTime, int bookings,
+            double revenue) {
+        this.resourceId = resourceId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.bookings = bookings;
+        this.revenue = revenue;
+    }
+
+    public static UsageChange parse(String payload) {
+        String[] parts = payload.split(";");
+        return new UsageChange(Long.parseLong(parts[0]), LocalDateTime.parse(parts[1]),
+                LocalDateTime.parse(parts[2]), Integer.parseInt(parts[3]), Double.parseDouble(parts[4]));
+    }
+
+    public String encode() {
+        return resourceId + ";" + startTime + ";" + endTime + ";" + bookings + ";" + revenue;
+    }
+
+    public long getResourceId() {
+        return resourceId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public int getBookings() {
+        return bookings;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+}
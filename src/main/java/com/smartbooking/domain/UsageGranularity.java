@@ -0,0 +1,40 @@
+package com.smartbooking.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket sizes of the usage aggregates. Weeks start on Monday, as in PostgreSQL's {@code date_trunc('week')}.
+ */
+public enum UsageGranularity {
+    HOUR(60),
+    DAY(24 * 60),
+    WEEK(7 * 24 * 60);
+
+    private final long minutes;
+
+    UsageGranularity(long minutes) {
+        this.minutes = minutes;
+    }
+
+    public long getMinutes() {
+        return minutes;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        switch (this) {
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return time.truncatedTo(ChronoUnit.DAYS);
+            default:
+                return time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plusMinutes(minutes);
+    }
+}
@@ -0,0 +1,58 @@
+package com.smartbooking.domain;
+
+import java.time.LocalDateTime;
+
+public class WaitlistEntry {
+    private final long id;
+    private final long userId;
+    private final long resourceId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final WaitlistStatus status;
+    private final Long bookingId;
+    private final LocalDateTime createdAt;
+
+    public WaitlistEntry(long id, long userId, long resourceId, LocalDateTime startTime, LocalDateTime endTime,
+            WaitlistStatus status, Long bookingId, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.resourceId = resourceId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+        this.bookingId = bookingId;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getResourceId() {
+        return resourceId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
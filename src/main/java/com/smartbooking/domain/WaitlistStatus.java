@@ -0,0 +1,7 @@
+package com.smartbooking.domain;
+
+public enum WaitlistStatus {
+    WAITING,
+    FULFILLED,
+    EXPIRED
+}
@@ -21,6 +21,16 @@ public class CompositePricingPolicy implements PricingPolicy {
         return price;
     }
 
+    @Override
+    public boolean hasWeeklyRates() {
+        for (PricingPolicy policy : policies) {
+            if (!policy.hasWeeklyRates()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public String getName() {
         return "COMPOSITE";
@@ -0,0 +1,13 @@
+package com.smartbooking.domain.policy;
+
+import com.smartbooking.domain.ResourceType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recent demand for resources of one type in the hour of the week containing {@code start}, as the share of
+ * those resources that were wanted in that hour per week: 0 is idle, 1 is fully booked.
+ */
+public interface DemandSignal {
+    double demand(ResourceType type, LocalDateTime start);
+}
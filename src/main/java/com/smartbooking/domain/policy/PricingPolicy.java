@@ -6,4 +6,12 @@ import com.smartbooking.domain.Timeslot;
 public interface PricingPolicy {
     double calculatePrice(Resource resource, Timeslot timeslot, double basePrice);
     String getName();
+
+    /**
+     * Whether the price of each minute depends only on its time of the week and is proportional to the base
+     * price, so that the policy can be compiled into a weekly rate table.
+     */
+    default boolean hasWeeklyRates() {
+        return true;
+    }
 }
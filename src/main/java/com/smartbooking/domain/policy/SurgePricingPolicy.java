@@ -0,0 +1,45 @@
+package com.smartbooking.domain.policy;
+
+import com.smartbooking.domain.Resource;
+import com.smartbooking.domain.Timeslot;
+
+/**
+ * Scales the price with the current demand for the booked hour: {@code minMultiplier} up to
+ * {@code lowDemand}, {@code maxMultiplier} from {@code highDemand}, and linear in between.
+ */
+public class SurgePricingPolicy implements PricingPolicy {
+    private final DemandSignal demandSignal;
+    private final double lowDemand;
+    private final double highDemand;
+    private final double minMultiplier;
+    private final double maxMultiplier;
+
+    public SurgePricingPolicy(DemandSignal demandSignal, double lowDemand, double highDemand, double minMultiplier,
+            double maxMultiplier) {
+        this.demandSignal = demandSignal;
+        this.lowDemand = lowDemand;
+        this.highDemand = highDemand;
+        this.minMultiplier = minMultiplier;
+        this.maxMultiplier = maxMultiplier;
+    }
+
+    @Override
+    public double calculatePrice(Resource resource, Timeslot timeslot, double basePrice) {
+        return basePrice * multiplier(demandSignal.demand(resource.getType(), timeslot.getStart()));
+    }
+
+    public double multiplier(double demand) {
+        double position = (demand - lowDemand) / (highDemand - lowDemand);
+        return minMultiplier + (maxMultiplier - minMultiplier) * Math.max(0.0, Math.min(1.0, position));
+    }
+
+    @Override
+    public boolean hasWeeklyRates() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return "SURGE";
+    }
+}
@@ -0,0 +1,323 @@
+package com.smartbooking.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.smartbooking.domain.AuditLog;
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingStatus;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only cold storage for rows moved out of the database. Rows are JSON lines in one gzip file per
+ * table and month. Each append adds a separate gzip member. {@code index.json} records every member's byte
+ * range, time range and user ids, so a lookup only decompresses the members that can match.
+ *
+ * The directory may be shared between nodes. Only one node appends at a time (see {@code ArchivalJob}),
+ * and every call first rereads {@code index.json} if another node has rewritten it since.
+ */
+public class ArchiveStore {
+    private static final String BOOKINGS = "bookings";
+    private static final String AUDIT = "audit";
+
+    private final Path directory;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<Segment> segments = new ArrayList<>();
+    // Modification time and size of the index as last read or written here
+    private FileTime indexModified;
+    private long indexSize = -1;
+
+    public ArchiveStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open archive " + directory, ex);
+        }
+        refresh();
+    }
+
+    public synchronized void appendBookings(List<Booking> bookings) {
+        refresh();
+        for (List<Booking> month : byMonth(bookings, b -> YearMonth.from(b.getStartTime()))) {
+            List<ObjectNode> rows = new ArrayList<>(month.size());
+            long[] userIds = new long[month.size()];
+            LocalDateTime from = LocalDateTime.MAX;
+            LocalDateTime to = LocalDateTime.MIN;
+            for (int i = 0; i < month.size(); i++) {
+                Booking booking = month.get(i);
+                rows.add(mapper.createObjectNode()
+                        .put("id", booking.getId())
+                        .put("userId", booking.getUserId())
+                        .put("resourceId", booking.getResourceId())
+                        .put("start", booking.getStartTime().toString())
+                        .put("end", booking.getEndTime().toString())
+                        .put("price", booking.getPrice())
+                        .put("status", booking.getStatus().name())
+                        .put("createdAt", booking.getCreatedAt().toString()));
+                userIds[i] = booking.getUserId();
+                from = min(from, booking.getStartTime());
+                to = max(to, booking.getStartTime());
+            }
+            append(BOOKINGS, YearMonth.from(from), rows, from, to, userIds);
+        }
+    }
+
+    public synchronized void appendAuditLogs(List<AuditLog> logs) {
+        refresh();
+        for (List<AuditLog> month : byMonth(logs, l -> YearMonth.from(l.getCreatedAt()))) {
+            List<ObjectNode> rows = new ArrayList<>(month.size());
+            long[] userIds = new long[month.size()];
+            LocalDateTime from = LocalDateTime.MAX;
+            LocalDateTime to = LocalDateTime.MIN;
+            for (int i = 0; i < month.size(); i++) {
+                AuditLog log = month.get(i);
+                rows.add(mapper.createObjectNode()
+                        .put("id", log.getId())
+                        .put("userId", log.getUserId())
+                        .put("action", log.getAction())
+                        .put("details", log.getDetails())
+                        .put("createdAt", log.getCreatedAt().toString()));
+                userIds[i] = log.getUserId();
+                from = min(from, log.getCreatedAt());
+                to = max(to, log.getCreatedAt());
+            }
+            append(AUDIT, YearMonth.from(from), rows, from, to, userIds);
+        }
+    }
+
+    public List<Booking> findBookingsByUser(long userId) {
+        return findBookingsByUser(userId, null);
+    }
+
+    /**
+     * Archived bookings of {@code userId} starting at or after {@code from}, which may be null.
+     */
+    public synchronized List<Booking> findBookingsByUser(long userId, LocalDateTime from) {
+        refresh();
+        List<Booking> bookings = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (!segment.kind.equals(BOOKINGS) || Arrays.binarySearch(segment.userIds, userId) < 0
+                    || (from != null && LocalDateTime.parse(segment.to).isBefore(from))) {
+                continue;
+            }
+            for (JsonNode row : read(segment)) {
+                if (row.get("userId").asLong() == userId) {
+                    Booking booking = toBooking(row);
+                    if (from == null || !booking.getStartTime().isBefore(from)) {
+                        bookings.add(booking);
+                    }
+                }
+            }
+        }
+        return bookings;
+    }
+
+    /**
+     * Archived audit entries created in {@code [from, to)}; either bound may be null.
+     */
+    public synchronized List<AuditLog> findAuditLogs(LocalDateTime from, LocalDateTime to) {
+        refresh();
+        Predicate<LocalDateTime> inRange = t -> (from == null || !t.isBefore(from)) && (to == null || t.isBefore(to));
+        List<AuditLog> logs = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (!segment.kind.equals(AUDIT)
+                    || (from != null && LocalDateTime.parse(segment.to).isBefore(from))
+                    || (to != null && !LocalDateTime.parse(segment.from).isBefore(to))) {
+                continue;
+            }
+            for (JsonNode row : read(segment)) {
+                LocalDateTime createdAt = LocalDateTime.parse(row.get("createdAt").asText());
+                if (inRange.test(createdAt)) {
+                    logs.add(new AuditLog(row.get("id").asLong(), row.get("userId").asLong(),
+                            row.get("action").asText(), row.get("details").asText(), createdAt));
+                }
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Latest audit timestamp in the archive, or null when nothing has been archived. Searches starting
+     * after it never need to open an archive file.
+     */
+    public synchronized LocalDateTime auditHorizon() {
+        refresh();
+        return horizon(AUDIT);
+    }
+
+    /**
+     * Latest start time of an archived booking, or null when none has been archived.
+     */
+    public synchronized LocalDateTime bookingHorizon() {
+        refresh();
+        return horizon(BOOKINGS);
+    }
+
+    private LocalDateTime horizon(String kind) {
+        LocalDateTime horizon = null;
+        for (Segment segment : segments) {
+            if (segment.kind.equals(kind)) {
+                horizon = horizon == null ? LocalDateTime.parse(segment.to) : max(horizon, LocalDateTime.parse(segment.to));
+            }
+        }
+        return horizon;
+    }
+
+    private void append(String kind, YearMonth month, List<ObjectNode> rows, LocalDateTime from, LocalDateTime to,
+            long[] userIds) {
+        Path file = directory.resolve(kind + "-" + month + ".jsonl.gz");
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(buffer), StandardCharsets.UTF_8)) {
+                for (ObjectNode row : rows) {
+                    writer.write(mapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+            long offset;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                offset = channel.size();
+                channel.write(ByteBuffer.wrap(buffer.toByteArray()));
+                channel.force(true);
+            }
+            Segment segment = new Segment();
+            segment.kind = kind;
+            segment.file = file.getFileName().toString();
+            segment.offset = offset;
+            segment.length = buffer.size();
+            segment.rows = rows.size();
+            segment.from = from.toString();
+            segment.to = to.toString();
+            segment.userIds = Arrays.stream(userIds).sorted().distinct().toArray();
+            segments.add(segment);
+            saveIndex();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to append to archive " + file, ex);
+        }
+    }
+
+    private void saveIndex() throws IOException {
+        Path temp = directory.resolve("index.json.tmp");
+        mapper.writeValue(temp.toFile(), segments);
+        Path index = directory.resolve("index.json");
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        indexModified = Files.getLastModifiedTime(index);
+        indexSize = Files.size(index);
+    }
+
+    /**
+     * Rereads the index if it changed on disk, e.g. because another node sharing the directory appended.
+     */
+    private void refresh() {
+        Path index = directory.resolve("index.json");
+        try {
+            if (!Files.exists(index)) {
+                return;
+            }
+            FileTime modified = Files.getLastModifiedTime(index);
+            long size = Files.size(index);
+            if (modified.equals(indexModified) && size == indexSize) {
+                return;
+            }
+            List<Segment> loaded = mapper.readValue(index.toFile(), new TypeReference<List<Segment>>() {
+            });
+            segments.clear();
+            segments.addAll(loaded);
+            indexModified = modified;
+            indexSize = size;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read archive index " + index, ex);
+        }
+    }
+
+    private List<JsonNode> read(Segment segment) {
+        Path file = directory.resolve(segment.file);
+        List<JsonNode> rows = new ArrayList<>(segment.rows);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate((int) segment.length);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, segment.offset + bytes.position()) < 0) {
+                    throw new EOFException("Archive segment truncated in " + file);
+                }
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(bytes.array())), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    rows.add(mapper.readTree(line));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read archive " + file, ex);
+        }
+        return rows;
+    }
+
+    private static Booking toBooking(JsonNode row) {
+        return new Booking(row.get("id").asLong(), row.get("userId").asLong(), row.get("resourceId").asLong(),
+                LocalDateTime.parse(row.get("start").asText()), LocalDateTime.parse(row.get("end").asText()),
+                row.get("price").asDouble(), BookingStatus.valueOf(row.get("status").asText()),
+                LocalDateTime.parse(row.get("createdAt").asText()));
+    }
+
+    private static <T> List<List<T>> byMonth(List<T> rows, Function<T, YearMonth> month) {
+        Map<YearMonth, List<T>> groups = new TreeMap<>();
+        for (T row : rows) {
+            groups.computeIfAbsent(month.apply(row), m -> new ArrayList<>()).add(row);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * One gzip member of an archive file, as recorded in {@code index.json}.
+     */
+    public static class Segment {
+        public String kind;
+        public String file;
+        public long offset;
+        public long length;
+        public int rows;
+        public String from;
+        public String to;
+        public long[] userIds;
+    }
+}
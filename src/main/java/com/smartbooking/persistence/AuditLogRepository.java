@@ -8,25 +8,35 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class AuditLogRepository {
+    private static final String COLUMNS = "id, user_id, action, details, created_at";
+
     private final Database database;
+    private final ArchiveStore archive;
 
     public AuditLogRepository(Database database) {
+        this(database, null);
+    }
+
+    public AuditLogRepository(Database database, ArchiveStore archive) {
         this.database = database;
+        this.archive = archive;
     }
 
     public AuditLog create(AuditLog auditLog) {
-        String sql = "INSERT INTO audit_log (user_id, action, details, created_at) VALUES (?, ?, ?, ?)";
+        String sql = SqlTemplates.INSERT_AUDIT_LOG;
         try (Connection connection = database.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, auditLog.getUserId());
             stmt.setString(2, auditLog.getAction());
             stmt.setString(3, auditLog.getDetails());
             stmt.setString(4, auditLog.getCreatedAt().toString());
-            stmt.executeUpdate();
-            ResultSet keys = stmt.getGeneratedKeys();
+            ResultSet keys = stmt.executeQuery();
             if (keys.next()) {
                 return new AuditLog(keys.getLong(1), auditLog.getUserId(), auditLog.getAction(),
                         auditLog.getDetails(), auditLog.getCreatedAt());
@@ -37,24 +47,97 @@ public class AuditLogRepository {
         }
     }
 
+    public void createAll(List<AuditLog> auditLogs) {
+        String sql = SqlTemplates.INSERT_AUDIT_LOGS;
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (AuditLog auditLog : auditLogs) {
+                stmt.setLong(1, auditLog.getUserId());
+                stmt.setString(2, auditLog.getAction());
+                stmt.setString(3, auditLog.getDetails());
+                stmt.setString(4, auditLog.getCreatedAt().toString());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to create audit logs", ex);
+        }
+    }
+
     public List<AuditLog> findAll() {
-        String sql = "SELECT * FROM audit_log ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM audit_log ORDER BY created_at DESC";
         List<AuditLog> logs = new ArrayList<>();
         try (Connection connection = database.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                logs.add(new AuditLog(
-                        rs.getLong("id"),
-                        rs.getLong("user_id"),
-                        rs.getString("action"),
-                        rs.getString("details"),
-                        LocalDateTime.parse(rs.getString("created_at"))
-                ));
+                logs.add(map(rs));
             }
         } catch (SQLException ex) {
             throw new IllegalStateException("Failed to load audit log", ex);
         }
         return logs;
     }
+
+    /**
+     * Entries created in {@code [from, to)}, newest first; either bound may be null. The archive is only
+     * read when {@code from} reaches back before its newest entry.
+     */
+    public List<AuditLog> findBetween(LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT " + COLUMNS + " FROM audit_log WHERE created_at >= ? AND created_at < ? ORDER BY created_at DESC";
+        List<AuditLog> logs = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            // ISO timestamps sort lexicographically, so "" and "~" stand in for open bounds
+            stmt.setString(1, from != null ? from.toString() : "");
+            stmt.setString(2, to != null ? to.toString() : "~");
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                logs.add(map(rs));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to search audit log", ex);
+        }
+        LocalDateTime horizon = archive != null ? archive.auditHorizon() : null;
+        if (horizon != null && (from == null || !from.isAfter(horizon))) {
+            Set<Long> live = new HashSet<>();
+            logs.forEach(log -> live.add(log.getId()));
+            List<AuditLog> archived = new ArrayList<>(archive.findAuditLogs(from, to));
+            archived.removeIf(log -> !live.add(log.getId()));
+            archived.sort(Comparator.comparing(AuditLog::getCreatedAt).reversed());
+            logs.addAll(archived);
+        }
+        return logs;
+    }
+
+    public List<AuditLog> deleteBefore(LocalDateTime cutoff, int limit) {
+        String sql = "DELETE FROM audit_log WHERE id IN (SELECT id FROM audit_log WHERE created_at < ? "
+                + "ORDER BY id LIMIT ?) RETURNING " + COLUMNS;
+        List<AuditLog> logs = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, cutoff.toString());
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                logs.add(map(rs));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to delete old audit log", ex);
+        }
+        return logs;
+    }
+
+    /**
+     * Reads the columns of {@link #COLUMNS} by position.
+     */
+    private AuditLog map(ResultSet rs) throws SQLException {
+        return new AuditLog(
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getString(3),
+                rs.getString(4),
+                LocalDateTime.parse(rs.getString(5))
+        );
+    }
 }
@@ -0,0 +1,164 @@
+package com.smartbooking.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one {@code bookings_yyyy_mm} partition per month from {@code RETENTION_MONTHS} ago to
+ * {@code MONTHS_AHEAD} in the future. By the time a partition falls out of that window, {@code ArchivalJob} has
+ * long moved its finished bookings out; an older partition is then detached and dropped, but only once it is
+ * empty, so rows that were never archived stay readable.
+ *
+ * Maintenance runs under a cluster-wide advisory lock, so that nodes starting together do not race to
+ * create the same partition.
+ *
+ * Partition bounds are ISO-8601 strings, which sort like the {@code LocalDateTime} values stored in start_time.
+ */
+public class BookingPartitionManager {
+    private static final int MONTHS_AHEAD = 12;
+    private static final int RETENTION_MONTHS = 24;
+    private static final int MAINTENANCE_LOCK_KEY = 0x53420006;
+    private static final String PREFIX = "bookings_";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final Database database;
+    private final ScheduledExecutorService executor;
+
+    public BookingPartitionManager(Database database) {
+        this.database = database;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "booking-partitions");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs maintenance once synchronously, so partitions exist before the first booking, then daily.
+     */
+    public void start() {
+        maintain(LocalDate.now());
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                maintain(LocalDate.now());
+            } catch (RuntimeException ex) {
+                System.err.println("Booking partition maintenance failed: " + ex.getMessage());
+            }
+        }, 1, 1, TimeUnit.DAYS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public void maintain(LocalDate today) {
+        database.inTransaction(() -> {
+            lockMaintenance();
+            YearMonth current = YearMonth.from(today);
+            YearMonth oldest = current.minusMonths(RETENTION_MONTHS);
+            // Listed under the lock, so partitions another node just created are seen
+            TreeSet<YearMonth> existing = new TreeSet<>(listPartitions());
+            for (YearMonth month = oldest; !month.isAfter(current.plusMonths(MONTHS_AHEAD)); month = month.plusMonths(1)) {
+                if (!existing.contains(month)) {
+                    createPartition(month);
+                }
+            }
+            for (YearMonth month : existing.headSet(oldest)) {
+                dropPartitionIfEmpty(month);
+            }
+            return null;
+        });
+    }
+
+    public List<YearMonth> listPartitions() {
+        String sql = "SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                + "WHERE p.relname = 'bookings'";
+        List<YearMonth> months = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                String name = rs.getString(1);
+                if (name.matches(PREFIX + "\\d{4}_\\d{2}")) {
+                    months.add(YearMonth.parse(name.substring(PREFIX.length()), SUFFIX));
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to list booking partitions", ex);
+        }
+        return months;
+    }
+
+    /**
+     * Rows for the month may already sit in the default partition, which would block ATTACH, so they are
+     * moved into the new table first, all in one transaction.
+     */
+    private void createPartition(YearMonth month) {
+        String table = tableName(month);
+        String from = lowerBound(month);
+        String to = lowerBound(month.plusMonths(1));
+        database.inTransaction(() -> {
+            try (Connection connection = database.getConnection();
+                    Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE " + table + " (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                stmt.executeUpdate("WITH moved AS (DELETE FROM bookings_default WHERE start_time >= '" + from
+                        + "' AND start_time < '" + to + "' RETURNING *) INSERT INTO " + table + " SELECT * FROM moved");
+                stmt.executeUpdate("ALTER TABLE bookings ATTACH PARTITION " + table
+                        + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Failed to create booking partition " + table, ex);
+            }
+            return null;
+        });
+    }
+
+    private void lockMaintenance() {
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+            stmt.setInt(1, MAINTENANCE_LOCK_KEY);
+            stmt.executeQuery();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to lock booking partition maintenance", ex);
+        }
+    }
+
+    private void dropPartitionIfEmpty(YearMonth month) {
+        String table = tableName(month);
+        try (Connection connection = database.getConnection();
+                Statement stmt = connection.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT count(*) FROM " + table);
+            rs.next();
+            long remaining = rs.getLong(1);
+            if (remaining > 0) {
+                System.err.println("Booking partition " + table + " still holds " + remaining
+                        + " unarchived rows; keeping it attached");
+                return;
+            }
+            stmt.executeUpdate("ALTER TABLE bookings DETACH PARTITION " + table);
+            stmt.executeUpdate("DROP TABLE " + table);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to drop booking partition " + table, ex);
+        }
+    }
+
+    static String tableName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    static String lowerBound(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toString();
+    }
+}
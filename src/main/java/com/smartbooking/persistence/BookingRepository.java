@@ -1,28 +1,59 @@
 package com.smartbooking.persistence;
 
 import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingSeries;
 import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.domain.RecurrenceRule;
+import com.smartbooking.domain.TimetableSlot;
+import com.smartbooking.domain.Timeslot;
+import com.smartbooking.util.EpochMinutes;
+import com.smartbooking.util.IntervalIndex;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 public class BookingRepository {
+    private static final String COLUMNS =
+            "id, user_id, resource_id, start_time, end_time, price, status, created_at, expires_at";
+    private static final String QUALIFIED_COLUMNS =
+            "b.id, b.user_id, b.resource_id, b.start_time, b.end_time, b.price, b.status, b.created_at, b.expires_at";
+    private static final String SLOT_COLUMNS = "id, user_id, start_time, end_time, status";
+    private static final int ARCHIVAL_LOCK_KEY = 0x53420005;
+
     private final Database database;
+    private final ArchiveStore archive;
+    private final Map<Long, IntervalIndex> intervalIndexes = new ConcurrentHashMap<>();
+    // Bumped on every invalidation, so that an index loaded across one is not kept
+    private final AtomicLong intervalGeneration = new AtomicLong();
 
     public BookingRepository(Database database) {
+        this(database, null);
+    }
+
+    public BookingRepository(Database database, ArchiveStore archive) {
         this.database = database;
+        this.archive = archive;
+        database.getChangeChannel().subscribe(this::onChange);
     }
 
     public Booking create(Booking booking) {
-        String sql = "INSERT INTO bookings (user_id, resource_id, start_time, end_time, price, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String sql = SqlTemplates.INSERT_BOOKING;
         try (Connection connection = database.getConnection();
-                PreparedStatement stmt = connection.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, booking.getUserId());
             stmt.setLong(2, booking.getResourceId());
             stmt.setString(3, booking.getStartTime().toString());
@@ -30,12 +61,13 @@ public class BookingRepository {
             stmt.setDouble(5, booking.getPrice());
             stmt.setString(6, booking.getStatus().name());
             stmt.setString(7, booking.getCreatedAt().toString());
-            stmt.executeUpdate();
-            ResultSet keys = stmt.getGeneratedKeys();
+            stmt.setString(8, booking.getExpiresAt() != null ? booking.getExpiresAt().toString() : null);
+            ResultSet keys = stmt.executeQuery();
             if (keys.next()) {
-                return new Booking(keys.getLong(1), booking.getUserId(), booking.getResourceId(),
+                publishChange(booking.getResourceId());
+                return new Booking(keys.getLong(1), booking.getUserId(), null, booking.getResourceId(),
                         booking.getStartTime(), booking.getEndTime(), booking.getPrice(),
-                        booking.getStatus(), booking.getCreatedAt());
+                        booking.getStatus(), booking.getCreatedAt(), booking.getExpiresAt());
             }
             throw new SQLException("No generated key for booking");
         } catch (SQLException ex) {
@@ -43,45 +75,142 @@ public class BookingRepository {
         }
     }
 
+    public List<Booking> createAll(List<Booking> bookings) {
+        return insertBatch(bookings, null);
+    }
+
+    /**
+     * Inserts the series row and all of its occurrences in one transaction, the occurrences as a
+     * single JDBC batch.
+     */
+    public BookingSeries createSeries(BookingSeries series, List<Booking> occurrences) {
+        String sql = SqlTemplates.INSERT_BOOKING_SERIES;
+        return database.inTransaction(() -> {
+            try (Connection connection = database.getConnection();
+                    PreparedStatement stmt = connection.prepareStatement(sql)) {
+                RecurrenceRule rule = series.getRule();
+                stmt.setLong(1, series.getUserId());
+                stmt.setLong(2, series.getResourceId());
+                stmt.setString(3, rule.getFrequency().name());
+                stmt.setInt(4, rule.getInterval());
+                stmt.setString(5, rule.getUntil().toString());
+                stmt.setString(6, series.getCreatedAt().toString());
+                ResultSet keys = stmt.executeQuery();
+                if (!keys.next()) {
+                    throw new SQLException("No generated key for booking series");
+                }
+                long seriesId = keys.getLong(1);
+                return new BookingSeries(seriesId, series.getUserId(), series.getResourceId(), rule,
+                        series.getCreatedAt(), insertBatch(occurrences, seriesId));
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Failed to create booking series", ex);
+            }
+        });
+    }
+
+    /**
+     * Takes row locks on the given resources in ascending id order, so concurrent multi-resource
+     * writers always acquire them in the same order. Only meaningful inside a transaction. NO KEY UPDATE
+     * serialises writers just the same but, unlike FOR UPDATE, does not block inserts whose foreign keys
+     * reference the resource (waitlist entries, series, other bookings).
+     */
+    public void lockResources(List<Long> resourceIds) {
+        String sql = "SELECT id FROM resources WHERE id = ANY(?) ORDER BY id FOR NO KEY UPDATE";
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setArray(1, connection.createArrayOf("bigint", resourceIds.toArray()));
+            stmt.executeQuery();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to lock resources", ex);
+        }
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        return database.inTransaction(work);
+    }
+
+    public void afterCommit(Runnable action) {
+        database.afterCommit(action);
+    }
+
     public void updateStatus(long bookingId, BookingStatus status) {
-        String sql = "UPDATE bookings SET status = ? WHERE id = ?";
+        String sql = "UPDATE bookings SET status = ? WHERE id = ? RETURNING resource_id";
         try (Connection connection = database.getConnection();
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, status.name());
             stmt.setLong(2, bookingId);
-            stmt.executeUpdate();
+            publishChanges(stmt.executeQuery());
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to update booking status", ex);
+        }
+    }
+
+    public void updateStatus(long bookingId, BookingStatus status, LocalDateTime expiresAt) {
+        String sql = "UPDATE bookings SET status = ?, expires_at = ? WHERE id = ? RETURNING resource_id";
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, status.name());
+            stmt.setString(2, expiresAt != null ? expiresAt.toString() : null);
+            stmt.setLong(3, bookingId);
+            publishChanges(stmt.executeQuery());
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to update booking status", ex);
+        }
+    }
+
+    /**
+     * Moves a hold on from {@code from}, but only while it has not lapsed at {@code now}: a lapsed hold no
+     * longer blocks its slot, which may already be booked by someone else. Returns whether it was updated.
+     */
+    public boolean updateHeldStatus(long bookingId, BookingStatus from, BookingStatus to, LocalDateTime expiresAt,
+            LocalDateTime now) {
+        String sql = "UPDATE bookings SET status = ?, expires_at = ? WHERE id = ? AND status = ? "
+                + "AND (expires_at IS NULL OR expires_at > ?) RETURNING resource_id";
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, to.name());
+            stmt.setString(2, expiresAt != null ? expiresAt.toString() : null);
+            stmt.setLong(3, bookingId);
+            stmt.setString(4, from.name());
+            stmt.setString(5, now.toString());
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next()) {
+                return false;
+            }
+            publishChange(rs.getLong(1));
+            return true;
         } catch (SQLException ex) {
             throw new IllegalStateException("Failed to update booking status", ex);
         }
     }
 
     public void updateTimes(long bookingId, LocalDateTime start, LocalDateTime end, double price) {
-        String sql = "UPDATE bookings SET start_time = ?, end_time = ?, price = ? WHERE id = ?";
+        String sql = "UPDATE bookings SET start_time = ?, end_time = ?, price = ? WHERE id = ? RETURNING resource_id";
         try (Connection connection = database.getConnection();
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, start.toString());
             stmt.setString(2, end.toString());
             stmt.setDouble(3, price);
             stmt.setLong(4, bookingId);
-            stmt.executeUpdate();
+            publishChanges(stmt.executeQuery());
         } catch (SQLException ex) {
             throw new IllegalStateException("Failed to update booking times", ex);
         }
     }
 
     public void delete(long bookingId) {
-        String sql = "DELETE FROM bookings WHERE id = ?";
+        String sql = "DELETE FROM bookings WHERE id = ? RETURNING resource_id";
         try (Connection connection = database.getConnection();
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, bookingId);
-            stmt.executeUpdate();
+            publishChanges(stmt.executeQuery());
         } catch (SQLException ex) {
             throw new IllegalStateException("Failed to delete booking", ex);
         }
     }
 
     public Optional<Booking> findById(long bookingId) {
-        String sql = "SELECT * FROM bookings WHERE id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM bookings WHERE id = ?";
         try (Connection connection = database.getConnection();
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, bookingId);
@@ -95,12 +224,29 @@ public class BookingRepository {
         }
     }
 
+    /**
+     * The user's bookings still in the database; archived ones need {@link #findByUser(long, LocalDateTime)}.
+     */
     public List<Booking> findByUser(long userId) {
-        String sql = "SELECT * FROM bookings WHERE user_id = ? ORDER BY created_at DESC";
+        return findByUser(userId, null, false);
+    }
+
+    /**
+     * The user's bookings starting at or after {@code from}. The archive is only read when {@code from}
+     * reaches back to the latest archived booking; null reaches back to the beginning.
+     */
+    public List<Booking> findByUser(long userId, LocalDateTime from) {
+        return findByUser(userId, from, true);
+    }
+
+    private List<Booking> findByUser(long userId, LocalDateTime from, boolean includeArchive) {
+        String sql = "SELECT " + COLUMNS + " FROM bookings WHERE user_id = ? AND start_time >= ? ORDER BY created_at DESC";
         List<Booking> bookings = new ArrayList<>();
         try (Connection connection = database.getConnection();
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, userId);
+            // ISO timestamps sort lexicographically, so "" stands in for an open bound
+            stmt.setString(2, from != null ? from.toString() : "");
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
                 bookings.add(map(rs));
@@ -108,11 +254,65 @@ public class BookingRepository {
         } catch (SQLException ex) {
             throw new IllegalStateException("Failed to load bookings", ex);
         }
+        LocalDateTime horizon = includeArchive && archive != null ? archive.bookingHorizon() : null;
+        if (horizon != null && (from == null || !from.isAfter(horizon))) {
+            // A row may exist in both places if archiving failed after the file write; the database wins.
+            Set<Long> live = new HashSet<>();
+            bookings.forEach(b -> live.add(b.getId()));
+            List<Booking> archived = new ArrayList<>(archive.findBookingsByUser(userId, from));
+            archived.removeIf(b -> !live.add(b.getId()));
+            archived.sort(Comparator.comparing(Booking::getCreatedAt).reversed());
+            bookings.addAll(archived);
+        }
+        return bookings;
+    }
+
+    /**
+     * Claims archival for the rest of the caller's transaction; false while another node is archiving.
+     */
+    public boolean tryLockArchival() {
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement("SELECT pg_try_advisory_xact_lock(?)")) {
+            stmt.setInt(1, ARCHIVAL_LOCK_KEY);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() && rs.getBoolean(1);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to lock archival", ex);
+        }
+    }
+
+    /**
+     * Deletes up to {@code limit} bookings in a final state that ended before {@code cutoff} and returns
+     * them, for the archival job to write out in the same transaction.
+     */
+    public List<Booking> deleteFinishedBefore(LocalDateTime cutoff, int limit) {
+        String sql = "WITH old AS (SELECT id, start_time FROM bookings WHERE status IN (?, ?, ?, ?) "
+                + "AND start_time < ? AND end_time < ? LIMIT ?) "
+                + "DELETE FROM bookings b USING old WHERE b.id = old.id AND b.start_time = old.start_time "
+                + "RETURNING " + QUALIFIED_COLUMNS;
+        List<Booking> bookings = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, BookingStatus.COMPLETED.name());
+            stmt.setString(2, BookingStatus.CANCELLED.name());
+            stmt.setString(3, BookingStatus.REFUNDED.name());
+            stmt.setString(4, BookingStatus.REJECTED.name());
+            stmt.setString(5, cutoff.toString());
+            stmt.setString(6, cutoff.toString());
+            stmt.setInt(7, limit);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                bookings.add(map(rs));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to delete finished bookings", ex);
+        }
+        bookings.stream().map(Booking::getResourceId).distinct().forEach(this::publishChange);
         return bookings;
     }
 
     public List<Booking> findPendingApproval() {
-        String sql = "SELECT * FROM bookings WHERE status = ? ORDER BY created_at ASC";
+        String sql = "SELECT " + COLUMNS + " FROM bookings WHERE status = ? ORDER BY created_at ASC";
         List<Booking> bookings = new ArrayList<>();
         try (Connection connection = database.getConnection();
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -127,9 +327,59 @@ public class BookingRepository {
         return bookings;
     }
 
+    public List<Booking> findByStatuses(BookingStatus... statuses) {
+        String sql = "SELECT " + COLUMNS + " FROM bookings WHERE status = ANY(?) ORDER BY start_time ASC";
+        List<Booking> bookings = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            String[] names = new String[statuses.length];
+            for (int i = 0; i < statuses.length; i++) {
+                names[i] = statuses[i].name();
+            }
+            stmt.setArray(1, connection.createArrayOf("text", names));
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                bookings.add(map(rs));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to load bookings by status", ex);
+        }
+        return bookings;
+    }
+
+    /**
+     * Moves every booking in {@code bookingIds} that is still in {@code from}, and whose start (with
+     * {@code atEnd}, end) is not after {@code now}, to {@code to} with a single statement and returns the
+     * ids that were actually updated. The time guard skips bookings whose times were changed after the
+     * transition was scheduled.
+     */
+    public List<Long> updateStatusBatch(List<Long> bookingIds, BookingStatus from, BookingStatus to, boolean atEnd,
+            LocalDateTime now) {
+        String sql = "UPDATE bookings SET status = ? WHERE id = ANY(?) AND status = ? AND "
+                + (atEnd ? "end_time" : "start_time") + " <= ? RETURNING id, resource_id";
+        List<Long> updated = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, to.name());
+            stmt.setArray(2, connection.createArrayOf("bigint", bookingIds.toArray()));
+            stmt.setString(3, from.name());
+            stmt.setString(4, now.toString());
+            ResultSet rs = stmt.executeQuery();
+            Set<Long> resourceIds = new HashSet<>();
+            while (rs.next()) {
+                updated.add(rs.getLong(1));
+                resourceIds.add(rs.getLong(2));
+            }
+            resourceIds.forEach(this::publishChange);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to update booking statuses", ex);
+        }
+        return updated;
+    }
+
     public List<Booking> findOverlaps(long resourceId, LocalDateTime start, LocalDateTime end) {
-        String sql = "SELECT * FROM bookings WHERE resource_id = ? AND status IN (?, ?, ?, ?) "
-                + "AND NOT (end_time <= ? OR start_time >= ?)";
+        String sql = "SELECT " + COLUMNS + " FROM bookings WHERE resource_id = ? AND status IN (?, ?, ?, ?) "
+                + "AND start_time > ? AND start_time < ? AND end_time > ? AND (expires_at IS NULL OR expires_at > ?)";
         List<Booking> bookings = new ArrayList<>();
         try (Connection connection = database.getConnection();
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -138,8 +388,10 @@ public class BookingRepository {
             stmt.setString(3, BookingStatus.APPROVED.name());
             stmt.setString(4, BookingStatus.PAID.name());
             stmt.setString(5, BookingStatus.ACTIVE.name());
-            stmt.setString(6, start.toString());
+            stmt.setString(6, earliestOverlappingStart(start));
             stmt.setString(7, end.toString());
+            stmt.setString(8, start.toString());
+            stmt.setString(9, LocalDateTime.now().toString());
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
                 bookings.add(map(rs));
@@ -150,12 +402,111 @@ public class BookingRepository {
         return bookings;
     }
 
-    public List<Booking> findActiveByResource(long resourceId, LocalDateTime start, LocalDateTime end) {
-        // [NEW] JOIN with users to get username
-        String sql = "SELECT b.*, u.username FROM bookings b JOIN users u ON b.user_id = u.id "
-                + "WHERE b.resource_id = ? AND b.status IN (?, ?, ?, ?) "
-                + "AND NOT (b.end_time <= ? OR b.start_time >= ?) ORDER BY b.start_time ASC";
-        List<Booking> bookings = new ArrayList<>();
+    /**
+     * Existence-only form of {@link #findOverlaps}: stops at the first conflicting row and maps nothing.
+     * {@code excludeBookingId} is left out of the check, e.g. the booking being moved; pass 0 for none.
+     */
+    public boolean hasOverlap(long resourceId, LocalDateTime start, LocalDateTime end, long excludeBookingId) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM bookings WHERE resource_id = ? AND status IN (?, ?, ?, ?) "
+                + "AND start_time > ? AND start_time < ? AND end_time > ? AND (expires_at IS NULL OR expires_at > ?) "
+                + "AND id <> ?)";
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, resourceId);
+            stmt.setString(2, BookingStatus.REQUESTED.name());
+            stmt.setString(3, BookingStatus.APPROVED.name());
+            stmt.setString(4, BookingStatus.PAID.name());
+            stmt.setString(5, BookingStatus.ACTIVE.name());
+            stmt.setString(6, earliestOverlappingStart(start));
+            stmt.setString(7, end.toString());
+            stmt.setString(8, start.toString());
+            stmt.setString(9, LocalDateTime.now().toString());
+            stmt.setLong(10, excludeBookingId);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() && rs.getBoolean(1);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to check conflicts", ex);
+        }
+    }
+
+    /**
+     * Conflict check against the cached {@link IntervalIndex} of the resource, loaded on first use and
+     * dropped whenever a booking on the resource changes. A true answer is a conflict that was committed
+     * when the index was loaded and is still held; false is not authoritative, so callers still confirm
+     * with {@link #hasOverlap} under the resource lock.
+     */
+    public boolean knownOverlap(long resourceId, LocalDateTime start, LocalDateTime end) {
+        IntervalIndex index = intervalIndexes.get(resourceId);
+        if (index == null) {
+            index = loadIntervalIndex(resourceId);
+        }
+        return index.overlaps(EpochMinutes.of(start), EpochMinutes.of(end), EpochMinutes.of(LocalDateTime.now()));
+    }
+
+    public void warmIntervalIndex(long resourceId) {
+        if (!intervalIndexes.containsKey(resourceId)) {
+            loadIntervalIndex(resourceId);
+        }
+    }
+
+    private IntervalIndex loadIntervalIndex(long resourceId) {
+        long generation = intervalGeneration.get();
+        LocalDateTime now = LocalDateTime.now();
+        String sql = "SELECT start_time, end_time, expires_at FROM bookings WHERE resource_id = ? "
+                + "AND status IN (?, ?, ?, ?) AND start_time > ? AND end_time > ? "
+                + "AND (expires_at IS NULL OR expires_at > ?) ORDER BY start_time";
+        IntervalIndex.Builder builder = new IntervalIndex.Builder();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, resourceId);
+            stmt.setString(2, BookingStatus.REQUESTED.name());
+            stmt.setString(3, BookingStatus.APPROVED.name());
+            stmt.setString(4, BookingStatus.PAID.name());
+            stmt.setString(5, BookingStatus.ACTIVE.name());
+            stmt.setString(6, earliestOverlappingStart(now));
+            stmt.setString(7, now.toString());
+            stmt.setString(8, now.toString());
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                String expiresAt = rs.getString(3);
+                builder.add(EpochMinutes.parse(rs.getString(1)), EpochMinutes.parse(rs.getString(2)),
+                        expiresAt == null ? IntervalIndex.NEVER : EpochMinutes.parse(expiresAt));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to load booked intervals", ex);
+        }
+        IntervalIndex index = builder.build();
+        intervalIndexes.put(resourceId, index);
+        // Checked after the put: an invalidation either sees the entry or is seen here
+        if (intervalGeneration.get() != generation) {
+            intervalIndexes.remove(resourceId, index);
+        }
+        return index;
+    }
+
+    private void onChange(ChangeMessage message) {
+        if (!message.affects(ChangeMessage.BOOKING)) {
+            return;
+        }
+        intervalGeneration.incrementAndGet();
+        if (message.getEntity() == ChangeMessage.ALL) {
+            intervalIndexes.clear();
+        } else {
+            intervalIndexes.remove(message.getId());
+        }
+    }
+
+    /**
+     * Slots occupied on {@code resourceId} between {@code start} and {@code end}, as the slim timetable
+     * projection. Usernames are not joined in; callers that show them resolve them from the user cache.
+     */
+    public List<TimetableSlot> findActiveByResource(long resourceId, LocalDateTime start, LocalDateTime end) {
+        String sql = "SELECT " + SLOT_COLUMNS + " FROM bookings "
+                + "WHERE resource_id = ? AND status IN (?, ?, ?, ?) "
+                + "AND start_time > ? AND start_time < ? AND end_time > ? "
+                + "AND (expires_at IS NULL OR expires_at > ?) "
+                + "ORDER BY start_time ASC";
+        List<TimetableSlot> slots = new ArrayList<>();
         try (Connection connection = database.getConnection();
                 PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, resourceId);
@@ -163,41 +514,136 @@ public class BookingRepository {
             stmt.setString(3, BookingStatus.APPROVED.name());
             stmt.setString(4, BookingStatus.PAID.name());
             stmt.setString(5, BookingStatus.ACTIVE.name());
-            stmt.setString(6, start.toString());
+            stmt.setString(6, earliestOverlappingStart(start));
             stmt.setString(7, end.toString());
+            stmt.setString(8, start.toString());
+            stmt.setString(9, LocalDateTime.now().toString());
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                bookings.add(mapWithUsername(rs));
+                slots.add(new TimetableSlot(
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        LocalDateTime.parse(rs.getString(3)),
+                        LocalDateTime.parse(rs.getString(4)),
+                        BookingStatus.valueOf(rs.getString(5))));
             }
         } catch (SQLException ex) {
             throw new IllegalStateException("Failed to load active bookings", ex);
         }
+        return slots;
+    }
+
+    /**
+     * Cancels up to {@code limit} holds that lapsed before {@code now} and returns them as they were
+     * before the update, so callers can replay the transition to observers.
+     */
+    public List<Booking> expireHolds(LocalDateTime now, int limit) {
+        String sql = "WITH lapsed AS ("
+                + "SELECT id, status FROM bookings WHERE expires_at <= ? AND status IN (?, ?) "
+                + "ORDER BY expires_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+                + "UPDATE bookings b SET status = ?, expires_at = NULL FROM lapsed l WHERE b.id = l.id "
+                + "RETURNING " + QUALIFIED_COLUMNS + ", l.status";
+        List<Booking> bookings = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, now.toString());
+            stmt.setString(2, BookingStatus.REQUESTED.name());
+            stmt.setString(3, BookingStatus.APPROVED.name());
+            stmt.setInt(4, limit);
+            stmt.setString(5, BookingStatus.CANCELLED.name());
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Booking expired = map(rs);
+                bookings.add(new Booking(expired.getId(), expired.getUserId(), expired.getResourceId(),
+                        expired.getStartTime(), expired.getEndTime(), expired.getPrice(),
+                        BookingStatus.valueOf(rs.getString(10)), expired.getCreatedAt()));
+            }
+            bookings.stream().map(Booking::getResourceId).distinct().forEach(this::publishChange);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to expire booking holds", ex);
+        }
         return bookings;
     }
 
+    private List<Booking> insertBatch(List<Booking> bookings, Long seriesId) {
+        String sql = SqlTemplates.INSERT_BOOKING_IN_SERIES;
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql, new String[] { "id" })) {
+            for (Booking booking : bookings) {
+                stmt.setLong(1, booking.getUserId());
+                stmt.setLong(2, booking.getResourceId());
+                stmt.setString(3, booking.getStartTime().toString());
+                stmt.setString(4, booking.getEndTime().toString());
+                stmt.setDouble(5, booking.getPrice());
+                stmt.setString(6, booking.getStatus().name());
+                stmt.setString(7, booking.getCreatedAt().toString());
+                stmt.setString(8, booking.getExpiresAt() != null ? booking.getExpiresAt().toString() : null);
+                if (seriesId != null) {
+                    stmt.setLong(9, seriesId);
+                } else {
+                    stmt.setNull(9, Types.INTEGER);
+                }
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            ResultSet keys = stmt.getGeneratedKeys();
+            List<Booking> saved = new ArrayList<>(bookings.size());
+            for (Booking booking : bookings) {
+                if (!keys.next()) {
+                    throw new SQLException("No generated key for batched booking");
+                }
+                saved.add(new Booking(keys.getLong(1), booking.getUserId(), null, booking.getResourceId(),
+                        booking.getStartTime(), booking.getEndTime(), booking.getPrice(),
+                        booking.getStatus(), booking.getCreatedAt(), booking.getExpiresAt()));
+            }
+            saved.stream().map(Booking::getResourceId).distinct().forEach(this::publishChange);
+            return saved;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to create bookings", ex);
+        }
+    }
+
+    /**
+     * Booking caches are keyed by resource, so every write announces the resource it touched. The local
+     * interval index is dropped again after commit, as a reload in between would still see the old rows.
+     */
+    private void publishChange(long resourceId) {
+        database.getChangeChannel().publish(new ChangeMessage(ChangeMessage.BOOKING, resourceId));
+        database.afterCommit(() -> onChange(new ChangeMessage(ChangeMessage.BOOKING, resourceId)));
+    }
+
+    /**
+     * No booking is longer than {@link Timeslot#MAX_DURATION}, so anything overlapping {@code start} began after
+     * this. Bounding start_time on both sides lets Postgres prune partitions outside the window.
+     */
+    private static String earliestOverlappingStart(LocalDateTime start) {
+        return start.minus(Timeslot.MAX_DURATION).toString();
+    }
+
+    private void publishChanges(ResultSet resourceIds) throws SQLException {
+        while (resourceIds.next()) {
+            publishChange(resourceIds.getLong(1));
+        }
+    }
+
+    /**
+     * Reads the columns of {@link #COLUMNS} (or {@link #QUALIFIED_COLUMNS}) by position.
+     */
     private Booking map(ResultSet rs) throws SQLException {
         return new Booking(
-                rs.getLong("id"),
-                rs.getLong("user_id"),
-                null, // username not fetched in standard map
-                rs.getLong("resource_id"),
-                LocalDateTime.parse(rs.getString("start_time")),
-                LocalDateTime.parse(rs.getString("end_time")),
-                rs.getDouble("price"),
-                BookingStatus.valueOf(rs.getString("status")),
-                LocalDateTime.parse(rs.getString("created_at")));
-    }
-
-    private Booking mapWithUsername(ResultSet rs) throws SQLException {
-        return new Booking(
-                rs.getLong("id"),
-                rs.getLong("user_id"),
-                rs.getString("username"), // [NEW]
-                rs.getLong("resource_id"),
-                LocalDateTime.parse(rs.getString("start_time")),
-                LocalDateTime.parse(rs.getString("end_time")),
-                rs.getDouble("price"),
-                BookingStatus.valueOf(rs.getString("status")),
-                LocalDateTime.parse(rs.getString("created_at")));
+                rs.getLong(1),
+                rs.getLong(2),
+                null,
+                rs.getLong(3),
+                LocalDateTime.parse(rs.getString(4)),
+                LocalDateTime.parse(rs.getString(5)),
+                rs.getDouble(6),
+                BookingStatus.valueOf(rs.getString(7)),
+                LocalDateTime.parse(rs.getString(8)),
+                parseNullable(rs.getString(9)));
+    }
+
+    private static LocalDateTime parseNullable(String value) {
+        return value != null ? LocalDateTime.parse(value) : null;
     }
 }
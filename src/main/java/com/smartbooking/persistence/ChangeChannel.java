@@ -0,0 +1,11 @@
+package com.smartbooking.persistence;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries compact invalidation messages ({@link ChangeMessage}) between every node sharing the database.
+ */
+public interface ChangeChannel {
+    void publish(ChangeMessage message);
+    void subscribe(Consumer<ChangeMessage> listener);
+}
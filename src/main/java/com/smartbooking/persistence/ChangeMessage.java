@@ -0,0 +1,48 @@
+package com.smartbooking.persistence;
+
+/**
+ * Invalidation message encoded as {@code <entity>:<id>}, e.g. {@code r:12} for resource 12 or
+ * {@code b:12} for any booking on resource 12. {@code *} means "drop everything", sent after a
+ * listener reconnects and may have missed messages.
+ */
+public class ChangeMessage {
+    public static final char RESOURCE = 'r';
+    public static final char USER = 'u';
+    public static final char BOOKING = 'b';
+    public static final char ALL = '*';
+
+    private final char entity;
+    private final long id;
+
+    public ChangeMessage(char entity, long id) {
+        this.entity = entity;
+        this.id = id;
+    }
+
+    public static ChangeMessage all() {
+        return new ChangeMessage(ALL, 0L);
+    }
+
+    public static ChangeMessage parse(String payload) {
+        if (payload.isEmpty() || payload.charAt(0) == ALL) {
+            return all();
+        }
+        return new ChangeMessage(payload.charAt(0), Long.parseLong(payload.substring(2)));
+    }
+
+    public String encode() {
+        return entity == ALL ? "*" : entity + ":" + id;
+    }
+
+    public char getEntity() {
+        return entity;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean affects(char cacheEntity) {
+        return entity == ALL || entity == cacheEntity;
+    }
+}
@@ -1,24 +1,263 @@
 package com.smartbooking.persistence;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
 
+/**
+ * Hands out pooled connections. Closing a pooled connection returns it to the pool, so the driver's
+ * per-connection statement cache, and the server-side prepared statements behind it, survive from one
+ * repository call to the next.
+ *
+ * At most {@code MAX_CONNECTIONS} pooled connections exist at once, idle or in use; a caller that finds none
+ * free waits up to {@code CONNECTION_WAIT_MILLIS} for one to be returned, so a burst of requests queues here
+ * instead of exhausting the server's {@code max_connections}. Sessions from {@link #openSession} are not
+ * counted.
+ */
 public class Database {
+    private static final int MAX_IDLE = 16;
+    private static final int MAX_CONNECTIONS = 32;
+    private static final long CONNECTION_WAIT_MILLIS = 10_000;
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 30_000;
+
     private final String url;
-    private final String username;
-    private final String password;
+    private final Properties properties = new Properties();
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    // Pooled connections open right now, idle or in use; guarded by idle
+    private int open;
+    private final ThreadLocal<Connection> transaction = new ThreadLocal<>();
+    private final ThreadLocal<List<Runnable>> afterCommit = new ThreadLocal<>();
+    private volatile ChangeChannel changeChannel = new LocalChangeChannel();
 
     public Database(String url, String username, String password) {
         this.url = url;
-        this.username = username;
-        this.password = password;
+        if (username != null && password != null) {
+            properties.setProperty("user", username);
+            properties.setProperty("password", password);
+        }
+        // Use a named server-side statement from the first execution instead of the fifth; pooled
+        // connections keep it, so later calls skip parsing and planning.
+        properties.setProperty("prepareThreshold", "1");
+    }
+
+    /**
+     * Channel that repositories publish cache invalidations on. Must be set before repositories are created.
+     */
+    public ChangeChannel getChangeChannel() {
+        return changeChannel;
+    }
+
+    public void setChangeChannel(ChangeChannel changeChannel) {
+        this.changeChannel = changeChannel;
     }
 
+    /**
+     * Returns the connection of the transaction bound to this thread, if any, so that repository
+     * calls made inside {@link #inTransaction} join it. Closing that connection is a no-op.
+     */
     public Connection getConnection() throws SQLException {
-        if (username == null || password == null) {
-            return DriverManager.getConnection(url);
+        Connection current = transaction.get();
+        if (current != null) {
+            return nonClosing(current);
+        }
+        return open();
+    }
+
+    /**
+     * Runs {@code work} in a single transaction. Nested calls join the outer transaction.
+     */
+    public <T> T inTransaction(Supplier<T> work) {
+        if (transaction.get() != null) {
+            return work.get();
+        }
+        List<Runnable> callbacks = new ArrayList<>();
+        T result;
+        try (Connection connection = open()) {
+            connection.setAutoCommit(false);
+            transaction.set(connection);
+            afterCommit.set(callbacks);
+            try {
+                result = work.get();
+                connection.commit();
+            } catch (RuntimeException | Error ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                transaction.remove();
+                afterCommit.remove();
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Transaction failed", ex);
+        }
+        // The change has committed: a failing callback must neither skip the others nor fail the caller
+        callbacks.forEach(Database::runCallback);
+        return result;
+    }
+
+    /**
+     * Opens a connection outside the pool, for session state that must end with the connection: LISTEN,
+     * session-level advisory locks.
+     */
+    public Connection openSession() throws SQLException {
+        return DriverManager.getConnection(url, properties);
+    }
+
+    /**
+     * Defers {@code action} until the transaction bound to this thread has committed; it is dropped on
+     * rollback. Outside a transaction it runs immediately. Failures are logged, never thrown.
+     */
+    public void afterCommit(Runnable action) {
+        List<Runnable> callbacks = afterCommit.get();
+        if (callbacks == null) {
+            runCallback(action);
+        } else {
+            callbacks.add(action);
+        }
+    }
+
+    private static void runCallback(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException ex) {
+            System.err.println("After-commit callback failed: " + ex.getMessage());
+        }
+    }
+
+    private Connection open() throws SQLException {
+        long deadline = System.currentTimeMillis() + CONNECTION_WAIT_MILLIS;
+        while (true) {
+            IdleConnection pooled;
+            synchronized (idle) {
+                while (idle.isEmpty() && open >= MAX_CONNECTIONS) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out waiting for a database connection ("
+                                + MAX_CONNECTIONS + " in use)");
+                    }
+                    try {
+                        idle.wait(remaining);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", ex);
+                    }
+                }
+                pooled = idle.pollFirst();
+                if (pooled == null) {
+                    open++;
+                }
+            }
+            if (pooled == null) {
+                try {
+                    return pooled(openSession());
+                } catch (SQLException | RuntimeException ex) {
+                    closed();
+                    throw ex;
+                }
+            }
+            // A connection that sat idle for a while may have been dropped by the server or a proxy
+            if (System.currentTimeMillis() - pooled.returnedAt < VALIDATE_AFTER_IDLE_MILLIS
+                    || pooled.connection.isValid(1)) {
+                return pooled(pooled.connection);
+            }
+            discard(pooled.connection);
+        }
+    }
+
+    private void release(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                closed();
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            discard(connection);
+            return;
+        }
+        synchronized (idle) {
+            if (idle.size() < MAX_IDLE) {
+                // Most recently used first, so surplus connections age out of the tail
+                idle.addFirst(new IdleConnection(connection, System.currentTimeMillis()));
+                idle.notify();
+                return;
+            }
+        }
+        discard(connection);
+    }
+
+    private void discard(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Already broken
+        }
+        closed();
+    }
+
+    /**
+     * Frees the slot of a pooled connection that was closed for good, for a waiting caller to open anew.
+     */
+    private void closed() {
+        synchronized (idle) {
+            open--;
+            idle.notify();
+        }
+    }
+
+    private Connection pooled(Connection connection) {
+        boolean[] released = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        if (!released[0]) {
+                            released[0] = true;
+                            release(connection);
+                        }
+                        return null;
+                    }
+                    if (method.getName().equals("isClosed") && released[0]) {
+                        return true;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    private static Connection nonClosing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    private static final class IdleConnection {
+        private final Connection connection;
+        private final long returnedAt;
+
+        private IdleConnection(Connection connection, long returnedAt) {
+            this.connection = connection;
+            this.returnedAt = returnedAt;
         }
-        return DriverManager.getConnection(url, username, password);
     }
 }
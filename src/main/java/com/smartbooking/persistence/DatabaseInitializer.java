@@ -10,10 +10,16 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public class DatabaseInitializer {
+        /**
+         * Brings the schema up to date and seeds demo data into a freshly created database. When the
+         * schema is already current this only reads schema_version.
+         */
         public void initialize(Database database) {
+                if (new SchemaMigrator(database).migrate() == 0) {
+                        return;
+                }
                 try (Connection connection = database.getConnection()) {
                         connection.setAutoCommit(false);
-                        createTables(connection);
                         seedData(connection);
                         connection.commit();
                 } catch (SQLException ex) {
@@ -21,72 +27,6 @@ public class DatabaseInitializer {
                 }
         }
 
-        private void createTables(Connection connection) throws SQLException {
-                connection.createStatement().executeUpdate("""
-                                CREATE TABLE IF NOT EXISTS users (
-                                    id SERIAL PRIMARY KEY,
-                                    username TEXT UNIQUE NOT NULL,
-                                    password_hash TEXT NOT NULL,
-                                    role TEXT NOT NULL
-                                );
-                                """);
-                connection.createStatement().executeUpdate("""
-                                CREATE TABLE IF NOT EXISTS resources (
-                                    id SERIAL PRIMARY KEY,
-                                    name TEXT NOT NULL,
-                                    type TEXT NOT NULL,
-                                    base_price DOUBLE PRECISION NOT NULL,
-                                    pricing_policy TEXT NOT NULL,
-                                    cancellation_policy TEXT NOT NULL,
-                                    approval_policy TEXT NOT NULL
-                                );
-                                """);
-                connection.createStatement().executeUpdate("""
-                                CREATE TABLE IF NOT EXISTS bookings (
-                                    id SERIAL PRIMARY KEY,
-                                    user_id INTEGER NOT NULL,
-                                    resource_id INTEGER NOT NULL,
-                                    start_time TEXT NOT NULL,
-                                    end_time TEXT NOT NULL,
-                                    price DOUBLE PRECISION NOT NULL,
-                                    status TEXT NOT NULL,
-                                    created_at TEXT NOT NULL,
-                                    FOREIGN KEY (user_id) REFERENCES users(id),
-                                    FOREIGN KEY (resource_id) REFERENCES resources(id)
-                                );
-                                """);
-                connection.createStatement().executeUpdate("""
-                                CREATE TABLE IF NOT EXISTS payments (
-                                    id SERIAL PRIMARY KEY,
-                                    booking_id INTEGER NOT NULL,
-                                    amount DOUBLE PRECISION NOT NULL,
-                                    method TEXT NOT NULL,
-                                    status TEXT NOT NULL,
-                                    created_at TEXT NOT NULL,
-                                    FOREIGN KEY (booking_id) REFERENCES bookings(id)
-                                );
-                                """);
-                connection.createStatement().executeUpdate("""
-                                CREATE TABLE IF NOT EXISTS notifications (
-                                    id SERIAL PRIMARY KEY,
-                                    user_id INTEGER NOT NULL,
-                                    message TEXT NOT NULL,
-                                    created_at TEXT NOT NULL,
-                                    FOREIGN KEY (user_id) REFERENCES users(id)
-                                );
-                                """);
-                connection.createStatement().executeUpdate("""
-                                CREATE TABLE IF NOT EXISTS audit_log (
-                                    id SERIAL PRIMARY KEY,
-                                    user_id INTEGER NOT NULL,
-                                    action TEXT NOT NULL,
-                                    details TEXT NOT NULL,
-                                    created_at TEXT NOT NULL,
-                                    FOREIGN KEY (user_id) REFERENCES users(id)
-                                );
-                                """);
-        }
-
         private void seedData(Connection connection) throws SQLException {
                 if (isSeeded(connection)) {
                         return;
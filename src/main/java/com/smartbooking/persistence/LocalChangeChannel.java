@@ -0,0 +1,32 @@
+package com.smartbooking.persistence;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process channel for a single node and for tests: messages are delivered synchronously.
+ */
+public class LocalChangeChannel implements ChangeChannel {
+    private final List<Consumer<ChangeMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ChangeMessage message) {
+        deliver(message);
+    }
+
+    @Override
+    public void subscribe(Consumer<ChangeMessage> listener) {
+        listeners.add(listener);
+    }
+
+    protected void deliver(ChangeMessage message) {
+        for (Consumer<ChangeMessage> listener : listeners) {
+            try {
+                listener.accept(message);
+            } catch (RuntimeException ex) {
+                System.err.println("Change listener failed: " + ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.smartbooking.persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One {@code V<version>__<description>.sql} migration. A script whose first line is
+ * {@code -- migrate:no-transaction} runs statement by statement in autocommit mode, which
+ * {@code CREATE INDEX CONCURRENTLY} requires.
+ */
+public class MigrationScript {
+    private static final Pattern NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String NO_TRANSACTION = "-- migrate:no-transaction";
+
+    private final int version;
+    private final String description;
+    private final String sql;
+    private final String checksum;
+
+    private MigrationScript(int version, String description, String sql) {
+        this.version = version;
+        this.description = description;
+        this.sql = sql;
+        this.checksum = sha256(sql);
+    }
+
+    public static MigrationScript load(String directory, String fileName) {
+        String resource = directory + "/" + fileName;
+        try (InputStream in = MigrationScript.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing migration " + resource);
+            }
+            return parse(fileName, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read migration " + resource, ex);
+        }
+    }
+
+    public static MigrationScript parse(String fileName, String sql) {
+        Matcher matcher = NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Migration name must look like V001__description.sql: " + fileName);
+        }
+        // Line endings must not change the checksum of an otherwise identical script
+        return new MigrationScript(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                sql.replace("\r\n", "\n"));
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public boolean isTransactional() {
+        return !sql.stripLeading().startsWith(NO_TRANSACTION);
+    }
+
+    /**
+     * Splits the script on semicolons outside of quotes, dollar-quoted bodies and comments.
+     */
+    public List<String> statements() {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuote = false;
+        boolean inDollar = false;
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (!inQuote && !inDollar && c == '-' && sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end < 0 ? sql.length() : end + 1;
+                current.append('\n');
+                continue;
+            }
+            if (!inQuote && sql.startsWith("$$", i)) {
+                inDollar = !inDollar;
+                current.append("$$");
+                i += 2;
+                continue;
+            }
+            if (!inDollar && c == '\'') {
+                inQuote = !inQuote;
+            }
+            if (!inQuote && !inDollar && c == ';') {
+                addStatement(statements, current);
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+            i++;
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder statement) {
+        String trimmed = statement.toString().strip();
+        if (!trimmed.isEmpty()) {
+            statements.add(trimmed);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -11,6 +11,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class NotificationRepository {
+    private static final String COLUMNS = "id, user_id, message, created_at";
+
     private final Database database;
 
     public NotificationRepository(Database database) {
@@ -18,14 +20,13 @@ public class NotificationRepository {
     }
 
     public Notification create(Notification notification) {
-        String sql = "INSERT INTO notifications (user_id, message, created_at) VALUES (?, ?, ?)";
+        String sql = SqlTemplates.INSERT_NOTIFICATION;
         try (Connection connection = database.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, notification.getUserId());
             stmt.setString(2, notification.getMessage());
             stmt.setString(3, notification.getCreatedAt().toString());
-            stmt.executeUpdate();
-            ResultSet keys = stmt.getGeneratedKeys();
+            ResultSet keys = stmt.executeQuery();
             if (keys.next()) {
                 return new Notification(keys.getLong(1), notification.getUserId(),
                         notification.getMessage(), notification.getCreatedAt());
@@ -36,8 +37,24 @@ public class NotificationRepository {
         }
     }
 
+    public void createAll(List<Notification> notifications) {
+        String sql = SqlTemplates.INSERT_NOTIFICATIONS;
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (Notification notification : notifications) {
+                stmt.setLong(1, notification.getUserId());
+                stmt.setString(2, notification.getMessage());
+                stmt.setString(3, notification.getCreatedAt().toString());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to create notifications", ex);
+        }
+    }
+
     public List<Notification> findByUser(long userId) {
-        String sql = "SELECT * FROM notifications WHERE user_id = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM notifications WHERE user_id = ? ORDER BY created_at DESC";
         List<Notification> notifications = new ArrayList<>();
         try (Connection connection = database.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -45,10 +62,10 @@ public class NotificationRepository {
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
                 notifications.add(new Notification(
-                        rs.getLong("id"),
-                        rs.getLong("user_id"),
-                        rs.getString("message"),
-                        LocalDateTime.parse(rs.getString("created_at"))
+                        rs.getLong(1),
+                        rs.getLong(2),
+                        rs.getString(3),
+                        LocalDateTime.parse(rs.getString(4))
                 ));
             }
         } catch (SQLException ex) {
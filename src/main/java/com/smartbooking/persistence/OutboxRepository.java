@@ -0,0 +1,113 @@
+package com.smartbooking.persistence;
+
+import com.smartbooking.domain.OutboxEvent;
+import com.smartbooking.domain.OutboxEventType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class OutboxRepository {
+    private static final int RELAY_LOCK_KEY = 0x53420003;
+    private static final String COLUMNS = "id, event_type, user_id, action, payload, created_at";
+
+    private final Database database;
+
+    public OutboxRepository(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Joins the caller's transaction, so the event commits or rolls back with the change it describes.
+     */
+    public void append(OutboxEvent event) {
+        String sql = SqlTemplates.INSERT_OUTBOX_EVENT;
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, event.getType().name());
+            stmt.setLong(2, event.getUserId());
+            stmt.setString(3, event.getAction());
+            stmt.setString(4, event.getPayload());
+            stmt.setString(5, event.getCreatedAt().toString());
+            stmt.executeUpdate();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to append outbox event", ex);
+        }
+    }
+
+    /**
+     * Only one relay in the cluster may drain at a time. The lock is released when the surrounding
+     * transaction ends.
+     */
+    public boolean tryLockRelay() {
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement("SELECT pg_try_advisory_xact_lock(?)")) {
+            stmt.setInt(1, RELAY_LOCK_KEY);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() && rs.getBoolean(1);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to lock outbox relay", ex);
+        }
+    }
+
+    public List<OutboxEvent> findOldest(int limit) {
+        String sql = "SELECT " + COLUMNS + " FROM outbox ORDER BY id LIMIT ?";
+        List<OutboxEvent> events = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, limit);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                events.add(new OutboxEvent(
+                        rs.getLong(1),
+                        OutboxEventType.valueOf(rs.getString(2)),
+                        rs.getLong(3),
+                        rs.getString(4),
+                        rs.getString(5),
+                        LocalDateTime.parse(rs.getString(6))));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to load outbox events", ex);
+        }
+        return events;
+    }
+
+    public void delete(List<Long> eventIds) {
+        String sql = "DELETE FROM outbox WHERE id = ANY(?)";
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setArray(1, connection.createArrayOf("bigint", eventIds.toArray()));
+            stmt.executeUpdate();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to delete outbox events", ex);
+        }
+    }
+
+    /**
+     * Moves an event out of the outbox into {@code outbox_dead_letter}, together with the error that made
+     * the relay give up on it.
+     */
+    public void deadLetter(long eventId, String error, LocalDateTime failedAt) {
+        String sql = "WITH moved AS (DELETE FROM outbox WHERE id = ? RETURNING " + COLUMNS + ") "
+                + "INSERT INTO outbox_dead_letter (" + COLUMNS + ", failed_at, error) "
+                + "SELECT " + COLUMNS + ", ?, ? FROM moved";
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, eventId);
+            stmt.setString(2, failedAt.toString());
+            stmt.setString(3, error);
+            stmt.executeUpdate();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to dead-letter outbox event", ex);
+        }
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        return database.inTransaction(work);
+    }
+}
@@ -15,16 +15,15 @@ public class PaymentRepository {
     }
 
     public Payment create(Payment payment) {
-        String sql = "INSERT INTO payments (booking_id, amount, method, status, created_at) VALUES (?, ?, ?, ?, ?)";
+        String sql = SqlTemplates.INSERT_PAYMENT;
         try (Connection connection = database.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, payment.getBookingId());
             stmt.setDouble(2, payment.getAmount());
             stmt.setString(3, payment.getMethod());
             stmt.setString(4, payment.getStatus());
             stmt.setString(5, payment.getCreatedAt().toString());
-            stmt.executeUpdate();
-            ResultSet keys = stmt.getGeneratedKeys();
+            ResultSet keys = stmt.executeQuery();
             if (keys.next()) {
                 return new Payment(keys.getLong(1), payment.getBookingId(), payment.getAmount(),
                         payment.getMethod(), payment.getStatus(), payment.getCreatedAt());
@@ -0,0 +1,94 @@
+package com.smartbooking.persistence;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * PostgreSQL LISTEN/NOTIFY channel. Messages are applied locally at once and sent with
+ * {@code pg_notify}, which joins the caller's transaction and is only delivered to other nodes on commit.
+ * Every node, including the sender, applies the notification again when it arrives.
+ */
+public class PgChangeChannel extends LocalChangeChannel {
+    private static final String CHANNEL = "smartbooking_changes";
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 2000;
+
+    private final Database database;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PgChangeChannel(Database database) {
+        this.database = database;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "change-channel-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public void publish(ChangeMessage message) {
+        deliver(message);
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            stmt.setString(1, CHANNEL);
+            stmt.setString(2, message.encode());
+            stmt.executeQuery();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to publish change", ex);
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = database.openSession()) {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    // Anything published while we were disconnected is lost
+                    deliver(ChangeMessage.all());
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        deliver(ChangeMessage.parse(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                System.err.println("Change channel disconnected: " + ex.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -9,17 +9,46 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Resources are read on every booking and rarely change, so they are cached on each node and
+ * invalidated through the database's {@link ChangeChannel}.
+ */
 public class ResourceRepository {
+    private static final String COLUMNS =
+            "id, name, type, base_price, pricing_policy, cancellation_policy, approval_policy";
+
     private final Database database;
+    private final Map<Long, Resource> cache = new ConcurrentHashMap<>();
+    private volatile List<Resource> allResources;
+    // Bumped on every invalidation, so that a row loaded across one is not kept
+    private final AtomicLong generation = new AtomicLong();
 
     public ResourceRepository(Database database) {
         this.database = database;
+        database.getChangeChannel().subscribe(this::onChange);
     }
 
     public List<Resource> findAll() {
-        String sql = "SELECT * FROM resources";
+        List<Resource> cached = allResources;
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        List<Resource> loaded = List.copyOf(loadAll());
+        allResources = loaded;
+        if (generation.get() != loadedAt) {
+            allResources = null;
+        }
+        return loaded;
+    }
+
+    private List<Resource> loadAll() {
+        String sql = "SELECT " + COLUMNS + " FROM resources";
         List<Resource> resources = new ArrayList<>();
         try (Connection connection = database.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -34,7 +63,24 @@ public class ResourceRepository {
     }
 
     public Optional<Resource> findById(long id) {
-        String sql = "SELECT * FROM resources WHERE id = ?";
+        Resource cached = cache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        Optional<Resource> loaded = loadById(id);
+        loaded.ifPresent(resource -> {
+            cache.put(id, resource);
+            // Checked after the put: an invalidation either sees the entry or is seen here
+            if (generation.get() != loadedAt) {
+                cache.remove(id, resource);
+            }
+        });
+        return loaded;
+    }
+
+    private Optional<Resource> loadById(long id) {
+        String sql = "SELECT " + COLUMNS + " FROM resources WHERE id = ?";
         try (Connection connection = database.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, id);
@@ -49,18 +95,18 @@ public class ResourceRepository {
     }
 
     public Resource create(Resource resource) {
-        String sql = "INSERT INTO resources (name, type, base_price, pricing_policy, cancellation_policy, approval_policy) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = SqlTemplates.INSERT_RESOURCE;
         try (Connection connection = database.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, resource.getName());
             stmt.setString(2, resource.getType().name());
             stmt.setDouble(3, resource.getBasePricePerHour());
             stmt.setString(4, resource.getPricingPolicyKey());
             stmt.setString(5, resource.getCancellationPolicyKey());
             stmt.setString(6, resource.getApprovalPolicyKey());
-            stmt.executeUpdate();
-            ResultSet keys = stmt.getGeneratedKeys();
+            ResultSet keys = stmt.executeQuery();
             if (keys.next()) {
+                database.getChangeChannel().publish(new ChangeMessage(ChangeMessage.RESOURCE, keys.getLong(1)));
                 return new Resource(keys.getLong(1), resource.getName(), resource.getType(),
                         resource.getBasePricePerHour(), resource.getPricingPolicyKey(),
                         resource.getCancellationPolicyKey(), resource.getApprovalPolicyKey());
@@ -71,15 +117,31 @@ public class ResourceRepository {
         }
     }
 
+    private void onChange(ChangeMessage message) {
+        if (!message.affects(ChangeMessage.RESOURCE)) {
+            return;
+        }
+        generation.incrementAndGet();
+        allResources = null;
+        if (message.getEntity() == ChangeMessage.ALL) {
+            cache.clear();
+        } else {
+            cache.remove(message.getId());
+        }
+    }
+
+    /**
+     * Reads the columns of {@link #COLUMNS} by position.
+     */
     private Resource map(ResultSet rs) throws SQLException {
         return new Resource(
-                rs.getLong("id"),
-                rs.getString("name"),
-                ResourceType.valueOf(rs.getString("type")),
-                rs.getDouble("base_price"),
-                rs.getString("pricing_policy"),
-                rs.getString("cancellation_policy"),
-                rs.getString("approval_policy")
+                rs.getLong(1),
+                rs.getString(2),
+                ResourceType.valueOf(rs.getString(3)),
+                rs.getDouble(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getString(7)
         );
     }
 }
@@ -0,0 +1,152 @@
+package com.smartbooking.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the versioned scripts in {@code db/migration} in order and records each one in
+ * {@code schema_version} together with its checksum. A script that changed after it was applied is an
+ * error. When every script is already recorded, startup only reads schema_version and runs no DDL.
+ *
+ * A failed no-transaction script can leave an INVALID index behind; drop it before retrying.
+ */
+public class SchemaMigrator {
+    private static final String DIRECTORY = "db/migration";
+    private static final List<String> SCRIPTS = List.of(
+            "V001__baseline.sql",
+            "V002__lookup_indexes.sql",
+            "V003__usage_aggregates.sql",
+            "V004__outbox_dead_letter.sql",
+            "V005__check_booking_durations.sql");
+    private static final int MIGRATION_LOCK_KEY = 0x53420004;
+
+    private final Database database;
+
+    public SchemaMigrator(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Returns the number of scripts applied by this call.
+     */
+    public int migrate() {
+        List<MigrationScript> scripts = new ArrayList<>();
+        for (String script : SCRIPTS) {
+            scripts.add(MigrationScript.load(DIRECTORY, script));
+        }
+        if (verify(scripts, appliedChecksums())) {
+            return 0;
+        }
+        // Several nodes may start at once; the first one migrates while the others wait and re-check.
+        try (Connection lockConnection = database.openSession();
+                Statement lock = lockConnection.createStatement()) {
+            lock.execute("SELECT pg_advisory_lock(" + MIGRATION_LOCK_KEY + ")");
+            try {
+                createVersionTable();
+                Map<Integer, String> applied = appliedChecksums();
+                verify(scripts, applied);
+                int count = 0;
+                for (MigrationScript script : scripts) {
+                    if (!applied.containsKey(script.getVersion())) {
+                        apply(script);
+                        count++;
+                    }
+                }
+                return count;
+            } finally {
+                lock.execute("SELECT pg_advisory_unlock(" + MIGRATION_LOCK_KEY + ")");
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to migrate schema", ex);
+        }
+    }
+
+    /**
+     * Fails on a checksum mismatch and returns whether every script has been applied.
+     */
+    private boolean verify(List<MigrationScript> scripts, Map<Integer, String> applied) {
+        boolean current = true;
+        for (MigrationScript script : scripts) {
+            String checksum = applied.get(script.getVersion());
+            if (checksum == null) {
+                current = false;
+            } else if (!checksum.equals(script.getChecksum())) {
+                throw new IllegalStateException("Migration V" + script.getVersion() + " (" + script.getDescription()
+                        + ") was modified after it was applied");
+            }
+        }
+        return current;
+    }
+
+    private Map<Integer, String> appliedChecksums() {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Connection connection = database.getConnection();
+                Statement stmt = connection.createStatement()) {
+            ResultSet exists = stmt.executeQuery("SELECT to_regclass('schema_version') IS NOT NULL");
+            if (!exists.next() || !exists.getBoolean(1)) {
+                return applied;
+            }
+            ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version");
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to read schema version", ex);
+        }
+        return applied;
+    }
+
+    private void createVersionTable() throws SQLException {
+        try (Connection connection = database.getConnection();
+                Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INTEGER PRIMARY KEY,
+                        description TEXT NOT NULL,
+                        checksum TEXT NOT NULL,
+                        installed_at TEXT NOT NULL
+                    )
+                    """);
+        }
+    }
+
+    private void apply(MigrationScript script) {
+        if (script.isTransactional()) {
+            database.inTransaction(() -> {
+                execute(script);
+                return null;
+            });
+        } else {
+            execute(script);
+        }
+        System.out.println("Applied migration V" + script.getVersion() + " " + script.getDescription());
+    }
+
+    private void execute(MigrationScript script) {
+        try (Connection connection = database.getConnection()) {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : script.statements()) {
+                    stmt.execute(sql);
+                }
+            }
+            try (PreparedStatement record = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, checksum, installed_at) VALUES (?, ?, ?, ?)")) {
+                record.setInt(1, script.getVersion());
+                record.setString(2, script.getDescription());
+                record.setString(3, script.getChecksum());
+                record.setString(4, LocalDateTime.now().toString());
+                record.executeUpdate();
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Migration V" + script.getVersion() + " failed", ex);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartbooking.persistence;
+
+/**
+ * The INSERT statements of all repositories, built once. Each insert returns its generated id through
+ * {@code RETURNING} in the same round trip instead of a separate generated-keys fetch, and each statement
+ * is a single constant string, so it maps to one entry in the statement cache of a pooled connection
+ * and is parsed and planned on the server only once per connection.
+ */
+final class SqlTemplates {
+    static final String INSERT_USER = insertReturning("users", "username, password_hash, role", "id");
+    static final String INSERT_RESOURCE = insertReturning("resources",
+            "name, type, base_price, pricing_policy, cancellation_policy, approval_policy", "id");
+    static final String INSERT_BOOKING = insertReturning("bookings",
+            "user_id, resource_id, start_time, end_time, price, status, created_at, expires_at", "id");
+    static final String INSERT_BOOKING_IN_SERIES = insert("bookings",
+            "user_id, resource_id, start_time, end_time, price, status, created_at, expires_at, series_id");
+    static final String INSERT_BOOKING_SERIES = insertReturning("booking_series",
+            "user_id, resource_id, frequency, interval_count, until_date, created_at", "id");
+    static final String INSERT_PAYMENT = insertReturning("payments",
+            "booking_id, amount, method, status, created_at", "id");
+    static final String INSERT_NOTIFICATION = insertReturning("notifications", "user_id, message, created_at", "id");
+    static final String INSERT_NOTIFICATIONS = insert("notifications", "user_id, message, created_at");
+    static final String INSERT_AUDIT_LOG = insertReturning("audit_log", "user_id, action, details, created_at", "id");
+    static final String INSERT_AUDIT_LOGS = insert("audit_log", "user_id, action, details, created_at");
+    static final String INSERT_WAITLIST_ENTRY = insertReturning("waitlist_entries",
+            "user_id, resource_id, start_time, end_time, status, created_at", "id");
+    static final String INSERT_OUTBOX_EVENT = insert("outbox", "event_type, user_id, action, payload, created_at");
+    static final String UPSERT_USAGE_AGGREGATE = insert("usage_aggregates",
+            "scope, scope_key, granularity, bucket_start, booked_minutes, bookings, revenue")
+            + " ON CONFLICT (scope, scope_key, granularity, bucket_start) DO UPDATE SET"
+            + " booked_minutes = usage_aggregates.booked_minutes + EXCLUDED.booked_minutes,"
+            + " bookings = usage_aggregates.bookings + EXCLUDED.bookings,"
+            + " revenue = usage_aggregates.revenue + EXCLUDED.revenue";
+
+    private SqlTemplates() {
+    }
+
+    static String insertReturning(String table, String columns, String returning) {
+        return insert(table, columns) + " RETURNING " + returning;
+    }
+
+    /**
+     * Plain insert, for JDBC batches (which return keys through {@code getGeneratedKeys}) and for rows whose
+     * id the caller does not need.
+     */
+    static String insert(String table, String columns) {
+        int count = columns.split(",").length;
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (").append(columns)
+                .append(") VALUES (");
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(')').toString();
+    }
+}
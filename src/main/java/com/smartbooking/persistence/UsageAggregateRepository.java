@@ -0,0 +1,125 @@
+package com.smartbooking.persistence;
+
+import com.smartbooking.domain.UsageAggregate;
+import com.smartbooking.domain.UsageAggregate.Scope;
+import com.smartbooking.domain.UsageGranularity;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UsageAggregateRepository {
+    private static final String COLUMNS = "bucket_start, booked_minutes, bookings, revenue";
+
+    private final Database database;
+
+    public UsageAggregateRepository(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Adds each delta to its bucket's totals, creating the bucket on first use. Joins the caller's
+     * transaction; callers pass the deltas in a consistent order so that concurrent writers lock the rows
+     * in the same order.
+     */
+    public void add(List<UsageAggregate> deltas) {
+        String sql = SqlTemplates.UPSERT_USAGE_AGGREGATE;
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (UsageAggregate delta : deltas) {
+                stmt.setString(1, delta.getScope().name());
+                stmt.setString(2, delta.getScopeKey());
+                stmt.setString(3, delta.getGranularity().name());
+                stmt.setString(4, delta.getBucketStart().toString());
+                stmt.setLong(5, delta.getBookedMinutes());
+                stmt.setInt(6, delta.getBookings());
+                stmt.setDouble(7, delta.getRevenue());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to update usage aggregates", ex);
+        }
+    }
+
+    /**
+     * Stored buckets starting in [from, to), oldest first. Buckets nothing was recorded in are absent.
+     */
+    public List<UsageAggregate> find(Scope scope, String scopeKey, UsageGranularity granularity,
+            LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT " + COLUMNS + " FROM usage_aggregates WHERE scope = ? AND scope_key = ? "
+                + "AND granularity = ? AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start";
+        List<UsageAggregate> aggregates = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, scope.name());
+            stmt.setString(2, scopeKey);
+            stmt.setString(3, granularity.name());
+            stmt.setString(4, from.toString());
+            stmt.setString(5, to.toString());
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                aggregates.add(map(scope, scopeKey, granularity, rs));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to load usage aggregates", ex);
+        }
+        return aggregates;
+    }
+
+    /**
+     * Booked minutes of each resource type per hour of the week (0 is Monday 0:00, 167 is Sunday 23:00),
+     * summed over all hour buckets.
+     */
+    public Map<String, long[]> sumTypeMinutesByHourOfWeek() {
+        return sumTypeMinutesByHourOfWeek(null, null);
+    }
+
+    /**
+     * As {@link #sumTypeMinutesByHourOfWeek()}, over the hour buckets starting in [from, to).
+     */
+    public Map<String, long[]> sumTypeMinutesByHourOfWeek(LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT scope_key, ((EXTRACT(ISODOW FROM bucket_start::timestamp) - 1) * 24 "
+                + "+ EXTRACT(HOUR FROM bucket_start::timestamp))::int, SUM(booked_minutes) FROM usage_aggregates "
+                + "WHERE scope = ? AND granularity = ?"
+                + (from != null ? " AND bucket_start >= ? AND bucket_start < ?" : "") + " GROUP BY 1, 2";
+        Map<String, long[]> totals = new HashMap<>();
+        try (Connection connection = database.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, Scope.TYPE.name());
+            stmt.setString(2, UsageGranularity.HOUR.name());
+            if (from != null) {
+                stmt.setString(3, UsageGranularity.HOUR.bucketStart(from).toString());
+                stmt.setString(4, to.toString());
+            }
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                totals.computeIfAbsent(rs.getString(1), type -> new long[7 * 24])[rs.getInt(2)] = rs.getLong(3);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to load weekly usage totals", ex);
+        }
+        return totals;
+    }
+
+    /**
+     * Reads the columns of {@link #COLUMNS} by position.
+     */
+    private UsageAggregate map(Scope scope, String scopeKey, UsageGranularity granularity, ResultSet rs)
+            throws SQLException {
+        return new UsageAggregate(
+                scope,
+                scopeKey,
+                granularity,
+                LocalDateTime.parse(rs.getString(1)),
+                rs.getLong(2),
+                rs.getInt(3),
+                rs.getDouble(4));
+    }
+}
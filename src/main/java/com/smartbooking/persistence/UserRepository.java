@@ -7,25 +7,39 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Users are looked up on every authenticated request; lookups are cached on each node and
+ * invalidated through the database's {@link ChangeChannel}.
+ */
 public class UserRepository {
+    private static final String COLUMNS = "id, username, password_hash, role";
+
     private final Database database;
+    private final Map<Long, User> byId = new ConcurrentHashMap<>();
+    private final Map<String, User> byUsername = new ConcurrentHashMap<>();
+    // Bumped on every invalidation, so that a row loaded across one is not kept
+    private final AtomicLong generation = new AtomicLong();
 
     public UserRepository(Database database) {
         this.database = database;
+        database.getChangeChannel().subscribe(this::onChange);
     }
 
     public User create(String username, String passwordHash, Role role) {
-        String sql = "INSERT INTO users (username, password_hash, role) VALUES (?, ?, ?)";
+        String sql = SqlTemplates.INSERT_USER;
         try (Connection connection = database.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, username);
             stmt.setString(2, passwordHash);
             stmt.setString(3, role.name());
-            stmt.executeUpdate();
-            ResultSet keys = stmt.getGeneratedKeys();
+            ResultSet keys = stmt.executeQuery();
             if (keys.next()) {
+                database.getChangeChannel().publish(new ChangeMessage(ChangeMessage.USER, keys.getLong(1)));
                 return new User(keys.getLong(1), username, passwordHash, role);
             }
             throw new SQLException("No generated key for user");
@@ -35,7 +49,18 @@ public class UserRepository {
     }
 
     public Optional<User> findByUsername(String username) {
-        String sql = "SELECT * FROM users WHERE username = ?";
+        User cached = byUsername.get(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        Optional<User> loaded = loadByUsername(username);
+        loaded.ifPresent(user -> cache(user, loadedAt));
+        return loaded;
+    }
+
+    private Optional<User> loadByUsername(String username) {
+        String sql = "SELECT " + COLUMNS + " FROM users WHERE username = ?";
         try (Connection connection = database.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, username);
@@ -50,7 +75,18 @@ public class UserRepository {
     }
 
     public Optional<User> findById(long id) {
-        String sql = "SELECT * FROM users WHERE id = ?";
+        User cached = byId.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedAt = generation.get();
+        Optional<User> loaded = loadById(id);
+        loaded.ifPresent(user -> cache(user, loadedAt));
+        return loaded;
+    }
+
+    private Optional<User> loadById(long id) {
+        String sql = "SELECT " + COLUMNS + " FROM users WHERE id = ?";
         try (Connection connection = database.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, id);
@@ -64,12 +100,42 @@ public class UserRepository {
         }
     }
 
+    private void cache(User user, long loadedAt) {
+        byId.put(user.getId(), user);
+        byUsername.put(user.getUsername(), user);
+        // Checked after the puts: an invalidation either sees the entries or is seen here
+        if (generation.get() != loadedAt) {
+            byId.remove(user.getId(), user);
+            byUsername.remove(user.getUsername(), user);
+        }
+    }
+
+    private void onChange(ChangeMessage message) {
+        if (!message.affects(ChangeMessage.USER)) {
+            return;
+        }
+        generation.incrementAndGet();
+        if (message.getEntity() == ChangeMessage.ALL) {
+            byId.clear();
+            byUsername.clear();
+            return;
+        }
+        User removed = byId.remove(message.getId());
+        if (removed != null) {
+            byUsername.remove(removed.getUsername());
+        }
+        byUsername.values().removeIf(user -> user.getId() == message.getId());
+    }
+
+    /**
+     * Reads the columns of {@link #COLUMNS} by position.
+     */
     private User map(ResultSet rs) throws SQLException {
         return new User(
-                rs.getLong("id"),
-                rs.getString("username"),
-                rs.getString("password_hash"),
-                Role.valueOf(rs.getString("role"))
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                Role.valueOf(rs.getString(4))
         );
     }
 }
@@ -0,0 +1,124 @@
+package com.smartbooking.persistence;
+
+import com.smartbooking.domain.WaitlistEntry;
+import com.smartbooking.domain.WaitlistStatus;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class WaitlistRepository {
+    private static final String COLUMNS = "id, user_id, resource_id, start_time, end_time, status, booking_id, created_at";
+
+    private final Database database;
+
+    public WaitlistRepository(Database database) {
+        this.database = database;
+    }
+
+    public WaitlistEntry create(WaitlistEntry entry) {
+        String sql = SqlTemplates.INSERT_WAITLIST_ENTRY;
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, entry.getUserId());
+            stmt.setLong(2, entry.getResourceId());
+            stmt.setString(3, entry.getStartTime().toString());
+            stmt.setString(4, entry.getEndTime().toString());
+            stmt.setString(5, entry.getStatus().name());
+            stmt.setString(6, entry.getCreatedAt().toString());
+            ResultSet keys = stmt.executeQuery();
+            if (keys.next()) {
+                return new WaitlistEntry(keys.getLong(1), entry.getUserId(), entry.getResourceId(),
+                        entry.getStartTime(), entry.getEndTime(), entry.getStatus(), null, entry.getCreatedAt());
+            }
+            throw new SQLException("No generated key for waitlist entry");
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to create waitlist entry", ex);
+        }
+    }
+
+    public List<WaitlistEntry> findWaiting() {
+        String sql = "SELECT " + COLUMNS + " FROM waitlist_entries WHERE status = ? ORDER BY id ASC";
+        List<WaitlistEntry> entries = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, WaitlistStatus.WAITING.name());
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                entries.add(map(rs));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to load waitlist", ex);
+        }
+        return entries;
+    }
+
+    public List<WaitlistEntry> findByUser(long userId) {
+        String sql = "SELECT " + COLUMNS + " FROM waitlist_entries WHERE user_id = ? ORDER BY created_at DESC";
+        List<WaitlistEntry> entries = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, userId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                entries.add(map(rs));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to load waitlist", ex);
+        }
+        return entries;
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        return database.inTransaction(work);
+    }
+
+    public boolean markFulfilled(long entryId, long bookingId) {
+        String sql = "UPDATE waitlist_entries SET status = ?, booking_id = ? WHERE id = ? AND status = ?";
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, WaitlistStatus.FULFILLED.name());
+            stmt.setLong(2, bookingId);
+            stmt.setLong(3, entryId);
+            stmt.setString(4, WaitlistStatus.WAITING.name());
+            return stmt.executeUpdate() == 1;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to update waitlist entry", ex);
+        }
+    }
+
+    public void markExpired(long entryId) {
+        String sql = "UPDATE waitlist_entries SET status = ? WHERE id = ? AND status = ?";
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setString(1, WaitlistStatus.EXPIRED.name());
+            stmt.setLong(2, entryId);
+            stmt.setString(3, WaitlistStatus.WAITING.name());
+            stmt.executeUpdate();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to update waitlist entry", ex);
+        }
+    }
+
+    /**
+     * Reads the columns of {@link #COLUMNS} by position.
+     */
+    private WaitlistEntry map(ResultSet rs) throws SQLException {
+        long bookingId = rs.getLong(7);
+        boolean unbooked = rs.wasNull();
+        return new WaitlistEntry(
+                rs.getLong(1),
+                rs.getLong(2),
+                rs.getLong(3),
+                LocalDateTime.parse(rs.getString(4)),
+                LocalDateTime.parse(rs.getString(5)),
+                WaitlistStatus.valueOf(rs.getString(6)),
+                unbooked ? null : bookingId,
+                LocalDateTime.parse(rs.getString(8)));
+    }
+}
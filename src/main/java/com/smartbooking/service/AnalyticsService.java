@@ -0,0 +1,87 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.Resource;
+import com.smartbooking.domain.ResourceType;
+import com.smartbooking.domain.UsageAggregate;
+import com.smartbooking.domain.UsageAggregate.Scope;
+import com.smartbooking.domain.UsageGranularity;
+import com.smartbooking.persistence.ResourceRepository;
+import com.smartbooking.persistence.UsageAggregateRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard queries over the usage aggregates. A report reads one row per bucket in the requested range,
+ * so its cost depends on the range and granularity but not on how many bookings have been made.
+ */
+public class AnalyticsService {
+    static final int MAX_BUCKETS = 1000;
+
+    private final UsageAggregateRepository usageAggregateRepository;
+    private final ResourceRepository resourceRepository;
+    private final OccupancyHeatmap heatmap;
+
+    public AnalyticsService(UsageAggregateRepository usageAggregateRepository, ResourceRepository resourceRepository,
+            OccupancyHeatmap heatmap) {
+        this.usageAggregateRepository = usageAggregateRepository;
+        this.resourceRepository = resourceRepository;
+        this.heatmap = heatmap;
+    }
+
+    /**
+     * Booked minutes of {@code type} by weekday (0 is Monday) and hour, read from memory.
+     */
+    public int[][] heatmap(ResourceType type) {
+        return heatmap.minutes(type);
+    }
+
+    public List<UsageAggregate> resourceUsage(long resourceId, UsageGranularity granularity, LocalDateTime from,
+            LocalDateTime to) {
+        resourceRepository.findById(resourceId)
+                .orElseThrow(() -> new IllegalArgumentException("Resource not found"));
+        return report(Scope.RESOURCE, Long.toString(resourceId), 1, granularity, from, to);
+    }
+
+    public List<UsageAggregate> typeUsage(ResourceType type, UsageGranularity granularity, LocalDateTime from,
+            LocalDateTime to) {
+        int resources = 0;
+        for (Resource resource : resourceRepository.findAll()) {
+            if (resource.getType() == type) {
+                resources++;
+            }
+        }
+        return report(Scope.TYPE, type.name(), resources, granularity, from, to);
+    }
+
+    /**
+     * Every bucket from the one containing {@code from} up to {@code to}, including empty ones, with
+     * utilization measured against round-the-clock availability of {@code resources} resources.
+     */
+    private List<UsageAggregate> report(Scope scope, String scopeKey, int resources, UsageGranularity granularity,
+            LocalDateTime from, LocalDateTime to) {
+        if (granularity == null || from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("A granularity and a range with from before to are required");
+        }
+        LocalDateTime first = granularity.bucketStart(from);
+        if (Duration.between(first, to).toMinutes() / granularity.getMinutes() >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range spans more than " + MAX_BUCKETS + " buckets");
+        }
+        Map<LocalDateTime, UsageAggregate> stored = new HashMap<>();
+        for (UsageAggregate aggregate : usageAggregateRepository.find(scope, scopeKey, granularity, first, to)) {
+            stored.put(aggregate.getBucketStart(), aggregate);
+        }
+        long capacity = granularity.getMinutes() * resources;
+        List<UsageAggregate> report = new ArrayList<>();
+        for (LocalDateTime bucket = first; bucket.isBefore(to); bucket = granularity.next(bucket)) {
+            UsageAggregate aggregate = stored.getOrDefault(bucket,
+                    new UsageAggregate(scope, scopeKey, granularity, bucket, 0L, 0, 0.0));
+            report.add(aggregate.withCapacity(capacity));
+        }
+        return report;
+    }
+}
@@ -1,26 +1,79 @@
 package com.smartbooking.service;
 
+import com.smartbooking.domain.Resource;
 import com.smartbooking.domain.state.BookingStateFactory;
 import com.smartbooking.persistence.*;
 
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wires the application. {@link #initializeAsync} overlaps the schema check, shard claiming and object
+ * construction, completes once requests can be served, and then warms caches and starts the background
+ * jobs without holding up readiness.
+ */
 public class AppBootstrap {
+    private static final long RETRY_SECONDS = 30;
+    private static final ScheduledExecutorService RETRIES = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "startup-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public static AppServices initialize() {
+        return initializeAsync(new StartupTimings()).join();
+    }
+
+    public static CompletableFuture<AppServices> initializeAsync(StartupTimings timings) {
         Database database = new Database("jdbc:postgresql://localhost:5432/smart_booking", "postgres", "postgres");
-        new DatabaseInitializer().initialize(database);
+        PgChangeChannel changeChannel = new PgChangeChannel(database);
+        changeChannel.start();
+        database.setChangeChannel(changeChannel);
+
+        CompletableFuture<Void> schema = CompletableFuture.runAsync(
+                () -> timings.time("schema", () -> new DatabaseInitializer().initialize(database)));
+        CompletableFuture<BookingCoordinator> coordinatorReady = CompletableFuture.supplyAsync(
+                () -> timings.time("shards", () -> createCoordinator(database)));
 
+        return CompletableFuture.supplyAsync(() -> timings.time("wiring", () -> wire(database, coordinatorReady)))
+                .thenCombine(schema, (wired, ignored) -> wired)
+                .thenApply(wired -> {
+                    // Must finish before the first slot is released, or waiting users could be skipped
+                    timings.time("waitlist", wired.services.getWaitlistService()::loadWaiting);
+                    timings.mark("ready");
+                    System.out.println(timings.summary());
+                    CompletableFuture.runAsync(() -> startBackground(database, wired, timings));
+                    return wired.services;
+                });
+    }
+
+    private static Wiring wire(Database database, CompletableFuture<BookingCoordinator> coordinatorReady) {
         UserRepository userRepository = new UserRepository(database);
         ResourceRepository resourceRepository = new ResourceRepository(database);
-        BookingRepository bookingRepository = new BookingRepository(database);
+        ArchiveStore archive = new ArchiveStore(archiveDirectory());
+        BookingRepository bookingRepository = new BookingRepository(database, archive);
         PaymentRepository paymentRepository = new PaymentRepository(database);
         NotificationRepository notificationRepository = new NotificationRepository(database);
-        AuditLogRepository auditLogRepository = new AuditLogRepository(database);
+        AuditLogRepository auditLogRepository = new AuditLogRepository(database, archive);
+        WaitlistRepository waitlistRepository = new WaitlistRepository(database);
+        OutboxRepository outboxRepository = new OutboxRepository(database);
+        UsageAggregateRepository usageAggregateRepository = new UsageAggregateRepository(database);
 
-        PolicyFactory policyFactory = new PolicyFactory();
+        DemandModel demandModel = new DemandModel(usageAggregateRepository, resourceRepository);
+        PolicyFactory policyFactory = new PolicyFactory(demandModel);
+        PricingEngine pricingEngine = new PricingEngine(policyFactory);
         BookingFactory bookingFactory = new BookingFactory();
         BookingStateFactory stateFactory = new BookingStateFactory();
-        NotificationService notificationService = new NotificationService(notificationRepository);
-        PaymentService paymentService = new PaymentService(paymentRepository);
-        AuditService auditService = new AuditService(auditLogRepository);
+        NotificationService notificationService = new NotificationService(notificationRepository, outboxRepository);
+        UsageAggregator usageAggregator = new UsageAggregator(usageAggregateRepository, resourceRepository,
+                outboxRepository);
+        PaymentService paymentService = new PaymentService(paymentRepository, usageAggregator);
+        AuditService auditService = new AuditService(auditLogRepository, outboxRepository);
 
         AuthService authService = new AuthService(userRepository);
         ResourceService resourceService = new ResourceService(resourceRepository);
@@ -32,9 +85,127 @@ public class AppBootstrap {
                 stateFactory,
                 notificationService,
                 paymentService,
-                auditService);
+                auditService,
+                coordinatorReady.join(),
+                pricingEngine);
+
+        OutboxRelay outboxRelay = new OutboxRelay(outboxRepository, notificationRepository, auditLogRepository,
+                usageAggregator);
+        OccupancyHeatmap heatmap = new OccupancyHeatmap(usageAggregateRepository, resourceRepository);
+        outboxRelay.addListener(heatmap);
+        BookingLifecycleScheduler lifecycleScheduler = new BookingLifecycleScheduler(bookingRepository, stateFactory);
+        bookingService.addObserver(lifecycleScheduler);
+        bookingService.addObserver(usageAggregator);
+        bookingService.addObserver(demandModel);
+
+        WaitlistService waitlistService = new WaitlistService(waitlistRepository, resourceRepository, bookingService,
+                notificationService, auditService);
+        bookingService.addSlotReleaseListener(waitlistService);
+
+        Wiring wired = new Wiring();
+        wired.services = new AppServices(userRepository, authService, resourceService, bookingService,
+                notificationService, auditService, lifecycleScheduler, waitlistService, outboxRelay,
+                new AnalyticsService(usageAggregateRepository, resourceRepository, heatmap),
+                new QuoteService(resourceRepository, pricingEngine));
+        wired.resourceRepository = resourceRepository;
+        wired.bookingRepository = bookingRepository;
+        wired.auditLogRepository = auditLogRepository;
+        wired.archive = archive;
+        wired.heatmap = heatmap;
+        wired.demandModel = demandModel;
+        return wired;
+    }
+
+    /**
+     * Starts every background job on its own, so that one failing does not keep the others from starting.
+     * The relay and the hold sweeper go first: until they run, notifications, audit entries and usage are
+     * not delivered and lapsed holds keep their slots. A job that fails to start is retried until it does.
+     * Cache warming is best effort, since the caches also fill on demand.
+     */
+    private static void startBackground(Database database, Wiring wired, StartupTimings timings) {
+        startJob("outbox relay", wired.services.getOutboxRelay()::start);
+        startJob("hold expiry sweeper", new HoldExpirySweeper(wired.services.getBookingService())::start);
+        startJob("lifecycle scheduler", () -> timings.time("lifecycle", wired.services.getLifecycleScheduler()::start));
+        // Changes the relay delivers while the cube is rebuilt may be missed until the next periodic rebuild
+        startJob("heatmap", () -> {
+            timings.time("heatmap", wired.heatmap::rebuild);
+            wired.heatmap.start();
+        });
+        startJob("demand model", () -> timings.time("demand", wired.demandModel::seed));
+        BookingPartitionManager partitions = new BookingPartitionManager(database);
+        startJob("partition maintenance", () -> timings.time("partitions", partitions::start));
+        startJob("archival job", new ArchivalJob(wired.bookingRepository, wired.auditLogRepository, wired.archive)::start);
+        try {
+            timings.time("warm-resources", () -> {
+                for (Resource resource : wired.resourceRepository.findAll()) {
+                    wired.resourceRepository.findById(resource.getId());
+                }
+            });
+            timings.time("interval-index", () -> {
+                for (Resource resource : wired.resourceRepository.findAll()) {
+                    wired.bookingRepository.warmIntervalIndex(resource.getId());
+                }
+            });
+        } catch (RuntimeException ex) {
+            System.err.println("Cache warming failed: " + ex.getMessage());
+        }
+        timings.mark("warm");
+    }
+
+    private static void startJob(String name, Runnable start) {
+        try {
+            start.run();
+        } catch (RuntimeException ex) {
+            System.err.println("Failed to start " + name + ", retrying in " + RETRY_SECONDS + " s: " + ex.getMessage());
+            RETRIES.schedule(() -> startJob(name, start), RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Objects built during wiring that the later startup stages still need.
+     */
+    private static class Wiring {
+        private AppServices services;
+        private ResourceRepository resourceRepository;
+        private BookingRepository bookingRepository;
+        private AuditLogRepository auditLogRepository;
+        private ArchiveStore archive;
+        private OccupancyHeatmap heatmap;
+        private DemandModel demandModel;
+    }
+
+    private static Path archiveDirectory() {
+        String directory = System.getenv("SMARTBOOKING_ARCHIVE_DIR");
+        if (directory == null || directory.isBlank()) {
+            // A default local directory would split the archive between nodes
+            String shardCount = System.getenv("SMARTBOOKING_SHARD_COUNT");
+            if (shardCount != null && !shardCount.isBlank()) {
+                throw new IllegalStateException(
+                        "SMARTBOOKING_ARCHIVE_DIR must name a directory shared by all nodes");
+            }
+            return Path.of("archive");
+        }
+        return Path.of(directory);
+    }
 
-        return new AppServices(userRepository, authService, resourceService, bookingService, notificationService,
-                auditService);
+    private static BookingCoordinator createCoordinator(Database database) {
+        // Multi-node deployments set SMARTBOOKING_SHARD_COUNT and the shards this node should own,
+        // e.g. SMARTBOOKING_NODE_SHARDS=0,1 of 4. Without them the node runs standalone.
+        String shardCount = System.getenv("SMARTBOOKING_SHARD_COUNT");
+        if (shardCount == null || shardCount.isBlank()) {
+            return BookingCoordinator.standalone();
+        }
+        Set<Integer> shards = new HashSet<>();
+        String nodeShards = System.getenv("SMARTBOOKING_NODE_SHARDS");
+        if (nodeShards != null) {
+            for (String shard : nodeShards.split(",")) {
+                if (!shard.isBlank()) {
+                    shards.add(Integer.parseInt(shard.trim()));
+                }
+            }
+        }
+        BookingCoordinator coordinator = new BookingCoordinator(database, Integer.parseInt(shardCount.trim()), shards);
+        coordinator.claimShards();
+        return coordinator;
     }
 }
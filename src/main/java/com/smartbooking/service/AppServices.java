@@ -9,19 +9,34 @@ public class AppServices {
     private final BookingService bookingService;
     private final NotificationService notificationService;
     private final AuditService auditService;
+    private final BookingLifecycleScheduler lifecycleScheduler;
+    private final WaitlistService waitlistService;
+    private final OutboxRelay outboxRelay;
+    private final AnalyticsService analyticsService;
+    private final QuoteService quoteService;
 
     public AppServices(UserRepository userRepository,
             AuthService authService,
             ResourceService resourceService,
             BookingService bookingService,
             NotificationService notificationService,
-            AuditService auditService) {
+            AuditService auditService,
+            BookingLifecycleScheduler lifecycleScheduler,
+            WaitlistService waitlistService,
+            OutboxRelay outboxRelay,
+            AnalyticsService analyticsService,
+            QuoteService quoteService) {
         this.userRepository = userRepository;
         this.authService = authService;
         this.resourceService = resourceService;
         this.bookingService = bookingService;
         this.notificationService = notificationService;
         this.auditService = auditService;
+        this.lifecycleScheduler = lifecycleScheduler;
+        this.waitlistService = waitlistService;
+        this.outboxRelay = outboxRelay;
+        this.analyticsService = analyticsService;
+        this.quoteService = quoteService;
     }
 
     public UserRepository getUserRepository() {
@@ -47,4 +62,24 @@ public class AppServices {
     public AuditService getAuditService() {
         return auditService;
     }
+
+    public BookingLifecycleScheduler getLifecycleScheduler() {
+        return lifecycleScheduler;
+    }
+
+    public WaitlistService getWaitlistService() {
+        return waitlistService;
+    }
+
+    public OutboxRelay getOutboxRelay() {
+        return outboxRelay;
+    }
+
+    public AnalyticsService getAnalyticsService() {
+        return analyticsService;
+    }
+
+    public QuoteService getQuoteService() {
+        return quoteService;
+    }
 }
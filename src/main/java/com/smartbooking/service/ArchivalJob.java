@@ -0,0 +1,92 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.AuditLog;
+import com.smartbooking.domain.Booking;
+import com.smartbooking.persistence.ArchiveStore;
+import com.smartbooking.persistence.AuditLogRepository;
+import com.smartbooking.persistence.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves finished bookings and old audit entries out of the database into the {@link ArchiveStore}.
+ * Each batch is deleted and written to the archive inside one transaction, and the transaction only
+ * commits after the archive file has been synced. A crash can therefore duplicate rows into the archive,
+ * which readers ignore, but it can never lose them.
+ *
+ * Every node runs the job, but each batch first takes a database advisory lock and is skipped while
+ * another node holds it, so only one node writes to the archive at a time. With several nodes the
+ * archive directory must be shared between them, or rows archived by one node vanish from the others.
+ */
+public class ArchivalJob {
+    private static final Duration BOOKING_RETENTION = Duration.ofDays(180);
+    private static final Duration AUDIT_RETENTION = Duration.ofDays(365);
+    private static final int BATCH_SIZE = 5000;
+
+    private final BookingRepository bookingRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final ArchiveStore archive;
+    private final ScheduledExecutorService executor;
+
+    public ArchivalJob(BookingRepository bookingRepository, AuditLogRepository auditLogRepository,
+            ArchiveStore archive) {
+        this.bookingRepository = bookingRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.archive = archive;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "archival-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                run(LocalDateTime.now());
+            } catch (RuntimeException ex) {
+                System.err.println("Archival failed: " + ex.getMessage());
+            }
+        }, 1, 24 * 60, TimeUnit.MINUTES);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public int run(LocalDateTime now) {
+        LocalDateTime bookingCutoff = now.minus(BOOKING_RETENTION);
+        LocalDateTime auditCutoff = now.minus(AUDIT_RETENTION);
+        int archived = 0;
+        List<Booking> bookings;
+        do {
+            bookings = bookingRepository.inTransaction(() -> {
+                if (!bookingRepository.tryLockArchival()) {
+                    return List.of();
+                }
+                List<Booking> batch = bookingRepository.deleteFinishedBefore(bookingCutoff, BATCH_SIZE);
+                archive.appendBookings(batch);
+                return batch;
+            });
+            archived += bookings.size();
+        } while (bookings.size() == BATCH_SIZE);
+        List<AuditLog> logs;
+        do {
+            logs = bookingRepository.inTransaction(() -> {
+                if (!bookingRepository.tryLockArchival()) {
+                    return List.of();
+                }
+                List<AuditLog> batch = auditLogRepository.deleteBefore(auditCutoff, BATCH_SIZE);
+                archive.appendAuditLogs(batch);
+                return batch;
+            });
+            archived += logs.size();
+        } while (logs.size() == BATCH_SIZE);
+        return archived;
+    }
+}
@@ -1,23 +1,45 @@
 package com.smartbooking.service;
 
 import com.smartbooking.domain.AuditLog;
+import com.smartbooking.domain.OutboxEvent;
+import com.smartbooking.domain.OutboxEventType;
 import com.smartbooking.persistence.AuditLogRepository;
+import com.smartbooking.persistence.OutboxRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public class AuditService {
     private final AuditLogRepository auditLogRepository;
+    private final OutboxRepository outboxRepository;
 
     public AuditService(AuditLogRepository auditLogRepository) {
+        this(auditLogRepository, null);
+    }
+
+    /**
+     * With an outbox, entries are recorded in the caller's transaction and written to the audit log by
+     * the {@link OutboxRelay}.
+     */
+    public AuditService(AuditLogRepository auditLogRepository, OutboxRepository outboxRepository) {
         this.auditLogRepository = auditLogRepository;
+        this.outboxRepository = outboxRepository;
     }
 
     public void log(long userId, String action, String details) {
+        if (outboxRepository != null) {
+            outboxRepository.append(new OutboxEvent(0L, OutboxEventType.AUDIT, userId, action, details,
+                    LocalDateTime.now()));
+            return;
+        }
         auditLogRepository.create(new AuditLog(0L, userId, action, details, LocalDateTime.now()));
     }
 
     public List<AuditLog> listLogs() {
         return auditLogRepository.findAll();
     }
+
+    public List<AuditLog> searchLogs(LocalDateTime from, LocalDateTime to) {
+        return auditLogRepository.findBetween(from, to);
+    }
 }
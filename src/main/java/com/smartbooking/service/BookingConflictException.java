@@ -0,0 +1,11 @@
+package com.smartbooking.service;
+
+/**
+ * The requested time overlaps a booking that still holds the slot. Unlike other
+ * {@link IllegalStateException}s, retrying later may succeed once that booking is released.
+ */
+public class BookingConflictException extends IllegalStateException {
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,161 @@
+package com.smartbooking.service;
+
+import com.smartbooking.persistence.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes booking writes between several nodes sharing one database.
+ *
+ * Resources are split into {@code shardCount} shards. A node may own shards by holding an exclusive
+ * session-level advisory lock on each of them for its lifetime. Writes to owned shards need nothing from
+ * the coordinator. Writes to shards owned elsewhere take a shared lock on the shard first, failing fast if
+ * another node owns it. Correctness does not rest on ownership, which is only re-checked once per
+ * heartbeat: every booking write also locks its resource rows (see {@code BookingRepository.lockResources}),
+ * and that row lock is what serialises writers on different nodes until commit.
+ */
+public class BookingCoordinator {
+    private static final int SHARD_LOCK_SPACE = 0x53420001;
+    private static final long HEARTBEAT_MILLIS = 1000;
+
+    private final Database database;
+    private final int shardCount;
+    private final Set<Integer> requestedShards;
+    private final Set<Integer> ownedShards = ConcurrentHashMap.newKeySet();
+    private Connection ownershipConnection;
+    private ScheduledExecutorService heartbeat;
+
+    public BookingCoordinator(Database database, int shardCount, Set<Integer> requestedShards) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        this.database = database;
+        this.shardCount = shardCount;
+        this.requestedShards = requestedShards;
+    }
+
+    /**
+     * Single-node deployment: this process owns every resource and never talks to the database. Booking
+     * writes are still serialised by the resource row locks BookingService takes.
+     */
+    public static BookingCoordinator standalone() {
+        BookingCoordinator coordinator = new BookingCoordinator(null, 1, Set.of(0));
+        coordinator.ownedShards.add(0);
+        return coordinator;
+    }
+
+    public synchronized void claimShards() {
+        try {
+            if (ownershipConnection == null || !ownershipConnection.isValid(1)) {
+                ownedShards.clear();
+                if (ownershipConnection != null) {
+                    // Ends the broken session, and with it any shard locks it may still hold
+                    closeQuietly(ownershipConnection);
+                    ownershipConnection = null;
+                }
+                ownershipConnection = database.openSession();
+            }
+            for (int shard : requestedShards) {
+                if (!ownedShards.contains(shard) && tryLockShard(shard)) {
+                    ownedShards.add(shard);
+                }
+            }
+        } catch (SQLException ex) {
+            ownedShards.clear();
+            System.err.println("Failed to claim booking shards: " + ex.getMessage());
+        }
+        if (heartbeat == null) {
+            heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "booking-shard-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // A dropped session releases its locks, so ownership is re-checked (and re-claimed) continuously.
+            heartbeat.scheduleWithFixedDelay(this::claimShards, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean ownsResource(long resourceId) {
+        return ownedShards.contains(shardOf(resourceId));
+    }
+
+    public Set<Integer> getOwnedShards() {
+        return Set.copyOf(ownedShards);
+    }
+
+    /**
+     * Must be called inside the booking transaction, after the in-JVM locks are held. Costs a database
+     * round trip only for resources on shards this node does not own.
+     */
+    public void lockResources(Collection<Long> resourceIds) {
+        if (database == null) {
+            return;
+        }
+        // Ascending order, so that two nodes locking overlapping sets cannot deadlock
+        TreeSet<Integer> foreignShards = new TreeSet<>();
+        for (long resourceId : resourceIds) {
+            if (!ownsResource(resourceId)) {
+                foreignShards.add(shardOf(resourceId));
+            }
+        }
+        if (foreignShards.isEmpty()) {
+            return;
+        }
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement("SELECT pg_try_advisory_xact_lock_shared(?, ?)")) {
+            for (int shard : foreignShards) {
+                stmt.setInt(1, SHARD_LOCK_SPACE);
+                stmt.setInt(2, shard);
+                ResultSet rs = stmt.executeQuery();
+                if (!rs.next() || !rs.getBoolean(1)) {
+                    throw new IllegalStateException("Shard " + shard + " is owned by another node");
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to lock resources", ex);
+        }
+    }
+
+    public synchronized void close() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+        ownedShards.clear();
+        if (ownershipConnection != null) {
+            closeQuietly(ownershipConnection);
+            ownershipConnection = null;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            System.err.println("Failed to release booking shards: " + ex.getMessage());
+        }
+    }
+
+    private int shardOf(long resourceId) {
+        return (int) Math.floorMod(resourceId, (long) shardCount);
+    }
+
+    private boolean tryLockShard(int shard) throws SQLException {
+        try (PreparedStatement stmt = ownershipConnection.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")) {
+            stmt.setInt(1, SHARD_LOCK_SPACE);
+            stmt.setInt(2, shard);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+}
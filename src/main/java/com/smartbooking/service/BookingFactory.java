@@ -9,4 +9,9 @@ public class BookingFactory {
     public Booking create(long userId, long resourceId, LocalDateTime start, LocalDateTime end, double price, BookingStatus status) {
         return new Booking(0L, userId, resourceId, start, end, price, status, LocalDateTime.now());
     }
+
+    public Booking createHold(long userId, long resourceId, LocalDateTime start, LocalDateTime end, double price,
+            BookingStatus status, LocalDateTime expiresAt) {
+        return new Booking(0L, userId, null, resourceId, start, end, price, status, LocalDateTime.now(), expiresAt);
+    }
 }
@@ -0,0 +1,176 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingObserver;
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.domain.state.BookingStateFactory;
+import com.smartbooking.persistence.BookingRepository;
+import com.smartbooking.util.EpochMinutes;
+import com.smartbooking.util.HashedTimingWheel;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the time-based part of the booking lifecycle: PAID bookings become ACTIVE at their start
+ * time and ACTIVE bookings become COMPLETED at their end time. All pending transitions live in one
+ * timing wheel and due transitions are applied in batches rather than through per-booking timers.
+ * The wheel holds every upcoming paid booking, so it keeps only id, status and {@link EpochMinutes}
+ * start and end of each rather than a {@link Booking}.
+ */
+public class BookingLifecycleScheduler implements BookingObserver {
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 4096;
+    private static final int BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final BookingStateFactory stateFactory;
+    private final HashedTimingWheel<Transition> wheel;
+    private final ScheduledExecutorService executor;
+
+    public BookingLifecycleScheduler(BookingRepository bookingRepository, BookingStateFactory stateFactory) {
+        this.bookingRepository = bookingRepository;
+        this.stateFactory = stateFactory;
+        this.wheel = new HashedTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "booking-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        for (Booking booking : bookingRepository.findByStatuses(BookingStatus.PAID, BookingStatus.ACTIVE)) {
+            schedule(booking);
+        }
+        executor.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public int pendingTransitions() {
+        return wheel.size();
+    }
+
+    @Override
+    public void onBookingStatusChanged(Booking booking, BookingStatus oldStatus, BookingStatus newStatus) {
+        if (newStatus == BookingStatus.PAID || newStatus == BookingStatus.ACTIVE) {
+            schedule(booking);
+        }
+    }
+
+    /**
+     * Schedules the transition at the new time; the entry for the old time is still in the wheel, but
+     * finds the booking not yet due (or already moved on) when it fires and is skipped.
+     */
+    @Override
+    public void onBookingMoved(Booking booking) {
+        schedule(booking);
+    }
+
+    void schedule(Booking booking) {
+        // Copied out so the wheel never keeps request-scoped observers alive.
+        schedule(new Transition(booking.getId(), booking.getStatus(), minuteNotBefore(booking.getStartTime()),
+                minuteNotBefore(booking.getEndTime())));
+    }
+
+    private void schedule(Transition transition) {
+        if (transition.status == BookingStatus.PAID) {
+            wheel.schedule(transition, toEpochMillis(transition.startMinute));
+        } else if (transition.status == BookingStatus.ACTIVE) {
+            wheel.schedule(transition, toEpochMillis(transition.endMinute));
+        }
+    }
+
+    void tick() {
+        try {
+            applyDue(wheel.advance(System.currentTimeMillis()));
+        } catch (RuntimeException ex) {
+            // Keep the wheel turning; anything not applied is picked up again on the next restart.
+            System.err.println("Booking lifecycle tick failed: " + ex.getMessage());
+        }
+    }
+
+    private void applyDue(List<Transition> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<BookingStatus, List<Transition>> byStatus = new EnumMap<>(BookingStatus.class);
+        for (Transition transition : due) {
+            BookingStatus target = nextStatus(transition.status);
+            if (target != null && stateFactory.getState(transition.status).canTransitionTo(target)) {
+                byStatus.computeIfAbsent(transition.status, s -> new ArrayList<>()).add(transition);
+            }
+        }
+        for (Map.Entry<BookingStatus, List<Transition>> group : byStatus.entrySet()) {
+            List<Transition> transitions = group.getValue();
+            for (int from = 0; from < transitions.size(); from += BATCH_SIZE) {
+                applyBatch(group.getKey(), transitions.subList(from, Math.min(from + BATCH_SIZE, transitions.size())));
+            }
+        }
+    }
+
+    private void applyBatch(BookingStatus from, List<Transition> batch) {
+        BookingStatus to = nextStatus(from);
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Transition transition : batch) {
+            ids.add(transition.bookingId);
+        }
+        // Bookings cancelled or moved since they were scheduled no longer match the guards and are skipped.
+        Set<Long> updated = new HashSet<>(bookingRepository.updateStatusBatch(ids, from, to,
+                from == BookingStatus.ACTIVE, LocalDateTime.now()));
+        for (Transition transition : batch) {
+            if (updated.contains(transition.bookingId)) {
+                schedule(new Transition(transition.bookingId, to, transition.startMinute, transition.endMinute));
+            }
+        }
+    }
+
+    private static BookingStatus nextStatus(BookingStatus status) {
+        if (status == BookingStatus.PAID) {
+            return BookingStatus.ACTIVE;
+        }
+        if (status == BookingStatus.ACTIVE) {
+            return BookingStatus.COMPLETED;
+        }
+        return null;
+    }
+
+    /**
+     * The booking's time in whole minutes, rounded up so that the transition never fires before it.
+     */
+    private static int minuteNotBefore(LocalDateTime time) {
+        int minute = EpochMinutes.of(time);
+        return EpochMinutes.toLocalDateTime(minute).isBefore(time) ? minute + 1 : minute;
+    }
+
+    private static long toEpochMillis(int minutes) {
+        // Booking times are wall-clock times of the server's zone
+        return EpochMinutes.toLocalDateTime(minutes).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Transition {
+        private final long bookingId;
+        private final BookingStatus status;
+        private final int startMinute;
+        private final int endMinute;
+
+        private Transition(long bookingId, BookingStatus status, int startMinute, int endMinute) {
+            this.bookingId = bookingId;
+            this.status = status;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+        }
+    }
+}
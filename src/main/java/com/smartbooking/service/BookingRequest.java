@@ -0,0 +1,21 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.Timeslot;
+
+public class BookingRequest {
+    private final long resourceId;
+    private final Timeslot timeslot;
+
+    public BookingRequest(long resourceId, Timeslot timeslot) {
+        this.resourceId = resourceId;
+        this.timeslot = timeslot;
+    }
+
+    public long getResourceId() {
+        return resourceId;
+    }
+
+    public Timeslot getTimeslot() {
+        return timeslot;
+    }
+}
@@ -1,21 +1,38 @@
 package com.smartbooking.service;
 
 import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingObserver;
+import com.smartbooking.domain.BookingSeries;
 import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.domain.RecurrenceRule;
 import com.smartbooking.domain.Resource;
 import com.smartbooking.domain.Timeslot;
+import com.smartbooking.domain.TimetableSlot;
 import com.smartbooking.domain.policy.ApprovalPolicy;
 import com.smartbooking.domain.policy.CancellationPolicy;
-import com.smartbooking.domain.policy.PricingPolicy;
 import com.smartbooking.domain.state.BookingStateFactory;
 import com.smartbooking.persistence.BookingRepository;
 import com.smartbooking.persistence.ResourceRepository;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 public class BookingService {
+    private static final Duration APPROVAL_HOLD = Duration.ofHours(24);
+    private static final Duration PAYMENT_HOLD = Duration.ofHours(12);
+    private static final int EXPIRY_BATCH_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 20;
+    private static final int LOCK_STRIPES = 64;
+
     private final BookingRepository bookingRepository;
     private final ResourceRepository resourceRepository;
     private final PolicyFactory policyFactory;
@@ -24,6 +41,11 @@ public class BookingService {
     private final NotificationService notificationService;
     private final PaymentService paymentService;
     private final AuditService auditService;
+    private final BookingCoordinator coordinator;
+    private final PricingEngine pricingEngine;
+    private final ResourceLockManager lockManager = new ResourceLockManager(LOCK_STRIPES);
+    private final List<BookingObserver> observers = new CopyOnWriteArrayList<>();
+    private final List<SlotReleaseListener> slotReleaseListeners = new CopyOnWriteArrayList<>();
 
     public BookingService(BookingRepository bookingRepository,
             ResourceRepository resourceRepository,
@@ -33,6 +55,33 @@ public class BookingService {
             NotificationService notificationService,
             PaymentService paymentService,
             AuditService auditService) {
+        this(bookingRepository, resourceRepository, policyFactory, bookingFactory, stateFactory, notificationService,
+                paymentService, auditService, BookingCoordinator.standalone());
+    }
+
+    public BookingService(BookingRepository bookingRepository,
+            ResourceRepository resourceRepository,
+            PolicyFactory policyFactory,
+            BookingFactory bookingFactory,
+            BookingStateFactory stateFactory,
+            NotificationService notificationService,
+            PaymentService paymentService,
+            AuditService auditService,
+            BookingCoordinator coordinator) {
+        this(bookingRepository, resourceRepository, policyFactory, bookingFactory, stateFactory, notificationService,
+                paymentService, auditService, coordinator, new PricingEngine(policyFactory));
+    }
+
+    public BookingService(BookingRepository bookingRepository,
+            ResourceRepository resourceRepository,
+            PolicyFactory policyFactory,
+            BookingFactory bookingFactory,
+            BookingStateFactory stateFactory,
+            NotificationService notificationService,
+            PaymentService paymentService,
+            AuditService auditService,
+            BookingCoordinator coordinator,
+            PricingEngine pricingEngine) {
         this.bookingRepository = bookingRepository;
         this.resourceRepository = resourceRepository;
         this.policyFactory = policyFactory;
@@ -41,138 +90,413 @@ public class BookingService {
         this.notificationService = notificationService;
         this.paymentService = paymentService;
         this.auditService = auditService;
+        this.coordinator = coordinator;
+        this.pricingEngine = pricingEngine;
+    }
+
+    public void addObserver(BookingObserver observer) {
+        observers.add(observer);
+    }
+
+    public void addSlotReleaseListener(SlotReleaseListener listener) {
+        slotReleaseListeners.add(listener);
+    }
+
+    public ResourceLockManager.LockStats getLockStats() {
+        return lockManager.stats();
     }
 
     public Booking createBooking(long userId, long resourceId, Timeslot timeslot) {
-        if (timeslot.getStart().isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Start time must be in the future");
-        }
-        Resource resource = resourceRepository.findById(resourceId)
-                .orElseThrow(() -> new IllegalArgumentException("Resource not found"));
+        return bookingRepository.inTransaction(() -> {
+            if (timeslot.getStart().isBefore(LocalDateTime.now())) {
+                throw new IllegalArgumentException("Start time must be in the future");
+            }
+            Resource resource = resourceRepository.findById(resourceId)
+                    .orElseThrow(() -> new IllegalArgumentException("Resource not found"));
+            // Losers of a race for a popular slot are turned away here, without taking the resource lock
+            if (bookingRepository.knownOverlap(resourceId, timeslot.getStart(), timeslot.getEnd())) {
+                throw new BookingConflictException("Requested timeslot conflicts with existing booking");
+            }
 
-        if (!bookingRepository.findOverlaps(resourceId, timeslot.getStart(), timeslot.getEnd()).isEmpty()) {
-            throw new IllegalStateException("Requested timeslot conflicts with existing booking");
-        }
+            double price = calculatePrice(resource, timeslot);
+
+            ApprovalPolicy approvalPolicy = policyFactory.createApprovalPolicy(resource.getApprovalPolicyKey());
+            boolean requiresApproval = approvalPolicy.requiresApproval(resource);
+            Booking booking = bookingFactory.createHold(userId, resourceId, timeslot.getStart(), timeslot.getEnd(), price,
+                    BookingStatus.REQUESTED, holdUntil(requiresApproval ? APPROVAL_HOLD : PAYMENT_HOLD, timeslot.getStart()));
 
-        double hours = Duration.between(timeslot.getStart(), timeslot.getEnd()).toMinutes() / 60.0;
-        double basePrice = hours * resource.getBasePricePerHour();
-        PricingPolicy pricingPolicy = policyFactory.createPricingPolicy(resource.getPricingPolicyKey());
-        double price = pricingPolicy.calculatePrice(resource, timeslot, basePrice);
+            Booking saved = writeExclusive(List.of(resourceId), () -> {
+                if (bookingRepository.hasOverlap(resourceId, timeslot.getStart(), timeslot.getEnd(), 0L)) {
+                    throw new BookingConflictException("Requested timeslot conflicts with existing booking");
+                }
+                return bookingRepository.create(booking);
+            });
 
-        Booking booking = bookingFactory.create(userId, resourceId, timeslot.getStart(), timeslot.getEnd(), price,
-                BookingStatus.REQUESTED);
+            attachObservers(saved);
 
-        Booking saved = bookingRepository.create(booking);
+            if (!requiresApproval) {
+                saved.transitionTo(BookingStatus.APPROVED, stateFactory);
+                bookingRepository.updateStatus(saved.getId(), saved.getStatus());
+                auditService.log(userId, "BOOKING_AUTO_APPROVED", "Booking " + saved.getId() + " auto-approved");
+            } else {
+                auditService.log(userId, "BOOKING_REQUESTED", "Booking " + saved.getId() + " awaiting approval");
+            }
+            return saved;
+        });
+    }
 
-        saved.addObserver(notificationService);
+    /**
+     * Books several resources for one user all-or-nothing: every request is conflict-checked and
+     * inserted inside one transaction that first locks the involved resources in id order.
+     */
+    public List<Booking> createBookings(long userId, List<BookingRequest> requests) {
+        return bookingRepository.inTransaction(() -> {
+            if (requests == null || requests.isEmpty()) {
+                throw new IllegalArgumentException("At least one booking is required");
+            }
+            if (requests.size() > MAX_BATCH_SIZE) {
+                throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " bookings per batch");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, Resource> resources = new TreeMap<>();
+            for (BookingRequest request : requests) {
+                if (request.getTimeslot().getStart().isBefore(now)) {
+                    throw new IllegalArgumentException("Start time must be in the future");
+                }
+                resources.computeIfAbsent(request.getResourceId(), id -> resourceRepository.findById(id)
+                        .orElseThrow(() -> new IllegalArgumentException("Resource not found: " + id)));
+            }
+            List<BookingRequest> ordered = new ArrayList<>(requests);
+            ordered.sort(Comparator.comparingLong(BookingRequest::getResourceId)
+                    .thenComparing(r -> r.getTimeslot().getStart()));
+            for (int i = 1; i < ordered.size(); i++) {
+                BookingRequest previous = ordered.get(i - 1);
+                BookingRequest current = ordered.get(i);
+                if (previous.getResourceId() == current.getResourceId()
+                        && previous.getTimeslot().getEnd().isAfter(current.getTimeslot().getStart())) {
+                    throw new IllegalArgumentException("Batch contains overlapping bookings for resource "
+                            + current.getResourceId());
+                }
+            }
 
-        ApprovalPolicy approvalPolicy = policyFactory.createApprovalPolicy(resource.getApprovalPolicyKey());
-        if (!approvalPolicy.requiresApproval(resource)) {
-            saved.transitionTo(BookingStatus.APPROVED, stateFactory);
-            bookingRepository.updateStatus(saved.getId(), saved.getStatus());
-            auditService.log(userId, "BOOKING_AUTO_APPROVED", "Booking " + saved.getId() + " auto-approved");
-        } else {
-            auditService.log(userId, "BOOKING_REQUESTED", "Booking " + saved.getId() + " awaiting approval");
-        }
-        return saved;
+            List<Booking> saved = writeExclusive(resources.keySet(), () -> {
+                List<Booking> bookings = new ArrayList<>(ordered.size());
+                for (BookingRequest request : ordered) {
+                    Resource resource = resources.get(request.getResourceId());
+                    Timeslot timeslot = request.getTimeslot();
+                    if (bookingRepository.hasOverlap(resource.getId(), timeslot.getStart(), timeslot.getEnd(), 0L)) {
+                        throw new BookingConflictException("Requested timeslot conflicts with existing booking on resource "
+                                + resource.getId());
+                    }
+                    boolean requiresApproval = policyFactory.createApprovalPolicy(resource.getApprovalPolicyKey())
+                            .requiresApproval(resource);
+                    bookings.add(bookingFactory.createHold(userId, resource.getId(), timeslot.getStart(),
+                            timeslot.getEnd(), calculatePrice(resource, timeslot),
+                            requiresApproval ? BookingStatus.REQUESTED : BookingStatus.APPROVED,
+                            holdUntil(requiresApproval ? APPROVAL_HOLD : PAYMENT_HOLD, timeslot.getStart())));
+                }
+                return bookingRepository.createAll(bookings);
+            });
+            replayAutoApprovals(saved);
+
+            StringBuilder ids = new StringBuilder();
+            for (Booking booking : saved) {
+                ids.append(ids.length() == 0 ? "" : ", ").append(booking.getId());
+            }
+            auditService.log(userId, "BOOKING_BATCH_CREATED", "Bookings " + ids + " created as one batch");
+            return saved;
+        });
+    }
+
+    public BookingSeries createSeries(long userId, long resourceId, Timeslot first, RecurrenceRule rule) {
+        return bookingRepository.inTransaction(() -> {
+            if (first.getStart().isBefore(LocalDateTime.now())) {
+                throw new IllegalArgumentException("Start time must be in the future");
+            }
+            Resource resource = resourceRepository.findById(resourceId)
+                    .orElseThrow(() -> new IllegalArgumentException("Resource not found"));
+            List<Timeslot> occurrences = rule.expand(first);
+
+            boolean requiresApproval = policyFactory.createApprovalPolicy(resource.getApprovalPolicyKey())
+                    .requiresApproval(resource);
+            BookingStatus status = requiresApproval ? BookingStatus.REQUESTED : BookingStatus.APPROVED;
+            List<Booking> bookings = new ArrayList<>(occurrences.size());
+            for (Timeslot occurrence : occurrences) {
+                double price = pricingEngine.price(resource, occurrence);
+                bookings.add(bookingFactory.createHold(userId, resourceId, occurrence.getStart(), occurrence.getEnd(),
+                        price, status, holdUntil(requiresApproval ? APPROVAL_HOLD : PAYMENT_HOLD, occurrence.getStart())));
+            }
+
+            BookingSeries series = writeExclusive(List.of(resourceId), () -> {
+                checkSeriesConflicts(resourceId, occurrences);
+                return bookingRepository.createSeries(
+                        new BookingSeries(0L, userId, resourceId, rule, LocalDateTime.now(), List.of()), bookings);
+            });
+            replayAutoApprovals(series.getOccurrences());
+            auditService.log(userId, requiresApproval ? "SERIES_REQUESTED" : "SERIES_AUTO_APPROVED",
+                    "Series " + series.getId() + " with " + bookings.size() + " bookings on resource " + resourceId);
+            return series;
+        });
     }
 
     public void approveBooking(long adminId, long bookingId) {
-        Booking booking = loadBooking(bookingId);
-        booking.transitionTo(BookingStatus.APPROVED, stateFactory);
-        bookingRepository.updateStatus(bookingId, booking.getStatus());
-        auditService.log(adminId, "BOOKING_APPROVED", "Booking " + bookingId + " approved");
+        bookingRepository.inTransaction(() -> {
+            Booking booking = loadBooking(bookingId);
+            LocalDateTime now = LocalDateTime.now();
+            checkHoldNotLapsed(booking, now);
+            BookingStatus previous = booking.getStatus();
+            booking.transitionTo(BookingStatus.APPROVED, stateFactory);
+            if (!bookingRepository.updateHeldStatus(bookingId, previous, booking.getStatus(),
+                    holdUntil(PAYMENT_HOLD, booking.getStartTime()), now)) {
+                throw new IllegalStateException("Booking hold has expired");
+            }
+            auditService.log(adminId, "BOOKING_APPROVED", "Booking " + bookingId + " approved");
+            return null;
+        });
     }
 
     public void rejectBooking(long adminId, long bookingId) {
-        Booking booking = loadBooking(bookingId);
-        booking.transitionTo(BookingStatus.REJECTED, stateFactory);
-        bookingRepository.updateStatus(bookingId, booking.getStatus());
-        auditService.log(adminId, "BOOKING_REJECTED", "Booking " + bookingId + " rejected");
+        bookingRepository.inTransaction(() -> {
+            Booking booking = loadBooking(bookingId);
+            booking.transitionTo(BookingStatus.REJECTED, stateFactory);
+            bookingRepository.updateStatus(bookingId, booking.getStatus(), null);
+            auditService.log(adminId, "BOOKING_REJECTED", "Booking " + bookingId + " rejected");
+            releaseSlot(booking);
+            return null;
+        });
     }
 
     public void payBooking(long userId, long bookingId, String method) {
-        Booking booking = loadBooking(bookingId);
-        booking.transitionTo(BookingStatus.PAID, stateFactory);
-        bookingRepository.updateStatus(bookingId, booking.getStatus());
-        paymentService.recordPayment(bookingId, booking.getPrice(), method);
-        auditService.log(userId, "BOOKING_PAID", "Booking " + bookingId + " paid");
+        bookingRepository.inTransaction(() -> {
+            Booking booking = loadBooking(bookingId);
+            LocalDateTime now = LocalDateTime.now();
+            checkHoldNotLapsed(booking, now);
+            BookingStatus previous = booking.getStatus();
+            booking.transitionTo(BookingStatus.PAID, stateFactory);
+            if (!bookingRepository.updateHeldStatus(bookingId, previous, booking.getStatus(), null, now)) {
+                throw new IllegalStateException("Booking hold has expired");
+            }
+            paymentService.recordPayment(booking, booking.getPrice(), method);
+            auditService.log(userId, "BOOKING_PAID", "Booking " + bookingId + " paid");
+            return null;
+        });
     }
 
     public void cancelBooking(long userId, long bookingId) {
-        Booking booking = loadBooking(bookingId);
-        BookingStatus previous = booking.getStatus();
-        booking.transitionTo(BookingStatus.CANCELLED, stateFactory);
-        bookingRepository.updateStatus(bookingId, booking.getStatus());
-
-        Resource resource = resourceRepository.findById(booking.getResourceId())
-                .orElseThrow(() -> new IllegalArgumentException("Resource not found"));
-        CancellationPolicy cancellationPolicy = policyFactory
-                .createCancellationPolicy(resource.getCancellationPolicyKey());
-        long hoursBeforeStart = Duration.between(LocalDateTime.now(), booking.getStartTime()).toHours();
-        double refundPercent = cancellationPolicy.refundPercent(hoursBeforeStart);
-
-        if (refundPercent > 0 && (previous == BookingStatus.PAID || previous == BookingStatus.ACTIVE)) {
-            booking.transitionTo(BookingStatus.REFUNDED, stateFactory);
-            bookingRepository.updateStatus(bookingId, booking.getStatus());
-            paymentService.recordRefund(bookingId, booking.getPrice() * refundPercent);
-            auditService.log(userId, "BOOKING_REFUNDED",
-                    "Booking " + bookingId + " refunded at " + (refundPercent * 100) + "%");
-        } else {
-            auditService.log(userId, "BOOKING_CANCELLED", "Booking " + bookingId + " cancelled");
-        }
+        bookingRepository.inTransaction(() -> {
+            Booking booking = loadBooking(bookingId);
+            BookingStatus previous = booking.getStatus();
+            booking.transitionTo(BookingStatus.CANCELLED, stateFactory);
+            bookingRepository.updateStatus(bookingId, booking.getStatus(), null);
+            releaseSlot(booking);
+
+            Resource resource = resourceRepository.findById(booking.getResourceId())
+                    .orElseThrow(() -> new IllegalArgumentException("Resource not found"));
+            CancellationPolicy cancellationPolicy = policyFactory
+                    .createCancellationPolicy(resource.getCancellationPolicyKey());
+            long hoursBeforeStart = Duration.between(LocalDateTime.now(), booking.getStartTime()).toHours();
+            double refundPercent = cancellationPolicy.refundPercent(hoursBeforeStart);
+
+            if (refundPercent > 0 && (previous == BookingStatus.PAID || previous == BookingStatus.ACTIVE)) {
+                booking.transitionTo(BookingStatus.REFUNDED, stateFactory);
+                bookingRepository.updateStatus(bookingId, booking.getStatus());
+                paymentService.recordRefund(booking, booking.getPrice() * refundPercent);
+                auditService.log(userId, "BOOKING_REFUNDED",
+                        "Booking " + bookingId + " refunded at " + (refundPercent * 100) + "%");
+            } else {
+                auditService.log(userId, "BOOKING_CANCELLED", "Booking " + bookingId + " cancelled");
+            }
+            return null;
+        });
+    }
+
+    public int expireHolds(LocalDateTime now) {
+        int expired = 0;
+        List<Booking> batch;
+        do {
+            batch = bookingRepository.inTransaction(() -> {
+                List<Booking> lapsed = bookingRepository.expireHolds(now, EXPIRY_BATCH_SIZE);
+                for (Booking booking : lapsed) {
+                    // Already cancelled in the database; replay the transition so observers see it.
+                    attachObservers(booking);
+                    booking.transitionTo(BookingStatus.CANCELLED, stateFactory);
+                    auditService.log(booking.getUserId(), "BOOKING_EXPIRED",
+                            "Booking " + booking.getId() + " hold expired");
+                    releaseSlot(booking);
+                }
+                return lapsed;
+            });
+            expired += batch.size();
+        } while (batch.size() == EXPIRY_BATCH_SIZE);
+        return expired;
     }
 
     public List<Booking> listUserBookings(long userId) {
         return bookingRepository.findByUser(userId);
     }
 
+    /**
+     * Also returns archived bookings when {@code from} reaches back into the archive.
+     */
+    public List<Booking> listUserBookings(long userId, LocalDateTime from) {
+        return bookingRepository.findByUser(userId, from);
+    }
+
     public List<Booking> listPendingBookings() {
         return bookingRepository.findPendingApproval();
     }
 
-    public List<Booking> listBookingsForResource(long resourceId, LocalDateTime start, LocalDateTime end) {
+    public List<TimetableSlot> listBookingsForResource(long resourceId, LocalDateTime start, LocalDateTime end) {
         return bookingRepository.findActiveByResource(resourceId, start, end);
     }
 
     public void updateBooking(long adminId, long bookingId, LocalDateTime start, LocalDateTime end) {
-        Booking booking = loadBooking(bookingId);
+        bookingRepository.inTransaction(() -> {
+            Booking booking = loadBooking(bookingId);
 
-        // Basic time validation
-        if (start.isAfter(end) || start.isEqual(end)) {
-            throw new IllegalArgumentException("Start time must be before end time");
-        }
+            // Basic time validation
+            if (start.isAfter(end) || start.isEqual(end)) {
+                throw new IllegalArgumentException("Start time must be before end time");
+            }
 
-        // Check for conflicts (excluding the current booking itself)
-        List<Booking> overlaps = bookingRepository.findOverlaps(booking.getResourceId(), start, end);
-        boolean hasConflict = overlaps.stream().anyMatch(b -> b.getId() != bookingId);
-        if (hasConflict) {
-            throw new IllegalStateException("New timeslot conflicts with existing booking");
-        }
+            // Recalculate price
+            Resource resource = resourceRepository.findById(booking.getResourceId())
+                    .orElseThrow(() -> new IllegalArgumentException("Resource not found"));
+            double price = calculatePrice(resource, new Timeslot(start, end));
 
-        // Recalculate price
-        Resource resource = resourceRepository.findById(booking.getResourceId())
-                .orElseThrow(() -> new IllegalArgumentException("Resource not found"));
-        double hours = Duration.between(start, end).toMinutes() / 60.0;
-        double basePrice = hours * resource.getBasePricePerHour();
-        PricingPolicy pricingPolicy = policyFactory.createPricingPolicy(resource.getPricingPolicyKey());
-        double price = pricingPolicy.calculatePrice(resource, new Timeslot(start, end), basePrice);
+            writeExclusive(List.of(booking.getResourceId()), () -> {
+                // Check for conflicts (excluding the current booking itself)
+                if (bookingRepository.hasOverlap(booking.getResourceId(), start, end, bookingId)) {
+                    throw new BookingConflictException("New timeslot conflicts with existing booking");
+                }
 
-        // Update persistence
-        bookingRepository.updateTimes(bookingId, start, end, price);
-        auditService.log(adminId, "BOOKING_UPDATED",
-                "Booking " + bookingId + " updated to " + start + " - " + end + " (Price: " + price + ")");
+                // Update persistence
+                bookingRepository.updateTimes(bookingId, start, end, price);
+                return null;
+            });
+            auditService.log(adminId, "BOOKING_UPDATED",
+                    "Booking " + bookingId + " updated to " + start + " - " + end + " (Price: " + price + ")");
+            releaseSlot(booking);
+            Booking moved = new Booking(bookingId, booking.getUserId(), booking.getUsername(), booking.getResourceId(),
+                    start, end, price, booking.getStatus(), booking.getCreatedAt(), booking.getExpiresAt());
+            bookingRepository.afterCommit(() -> {
+                for (BookingObserver observer : observers) {
+                    observer.onBookingMoved(moved);
+                }
+            });
+            return null;
+        });
     }
 
     public void deleteBooking(long adminId, long bookingId) {
-        bookingRepository.delete(bookingId);
-        auditService.log(adminId, "BOOKING_DELETED", "Booking " + bookingId + " deleted by admin");
+        bookingRepository.inTransaction(() -> {
+            Optional<Booking> booking = bookingRepository.findById(bookingId);
+            bookingRepository.delete(bookingId);
+            auditService.log(adminId, "BOOKING_DELETED", "Booking " + bookingId + " deleted by admin");
+            booking.ifPresent(this::releaseSlot);
+            return null;
+        });
+    }
+
+    /**
+     * A hold past its expiry no longer blocks the slot, even before the sweeper has cancelled it, so it
+     * must not be approved or paid either: the slot may already belong to someone else.
+     */
+    private static void checkHoldNotLapsed(Booking booking, LocalDateTime now) {
+        if (booking.getExpiresAt() != null && !booking.getExpiresAt().isAfter(now)) {
+            throw new IllegalStateException("Booking hold has expired");
+        }
     }
 
     private Booking loadBooking(long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
-        booking.addObserver(notificationService);
+        attachObservers(booking);
         return booking;
     }
+
+    /**
+     * Runs a check-and-write on the given resources: in-JVM striped locks first, then one transaction
+     * in which the coordinator checks shard ownership and the resource rows are locked FOR NO KEY UPDATE.
+     * Callers usually run inside an outer transaction that this one joins, and the striped locks are
+     * released as soon as {@code work} returns; the row locks are what keep a second writer out until
+     * the insert has committed and its overlap check can see it.
+     */
+    private <T> T writeExclusive(Collection<Long> resourceIds, Supplier<T> work) {
+        return lockManager.withLocks(resourceIds, () -> bookingRepository.inTransaction(() -> {
+            coordinator.lockResources(resourceIds);
+            bookingRepository.lockResources(new ArrayList<>(resourceIds));
+            return work.get();
+        }));
+    }
+
+    private void checkSeriesConflicts(long resourceId, List<Timeslot> occurrences) {
+        // One range query for the whole series, then a single merge pass over both sorted lists
+        LocalDateTime seriesStart = occurrences.get(0).getStart();
+        LocalDateTime seriesEnd = occurrences.get(occurrences.size() - 1).getEnd();
+        List<Booking> existing = new ArrayList<>(bookingRepository.findOverlaps(resourceId, seriesStart, seriesEnd));
+        existing.sort(Comparator.comparing(Booking::getStartTime));
+        List<LocalDateTime> conflicts = new ArrayList<>();
+        int next = 0;
+        for (Timeslot occurrence : occurrences) {
+            while (next < existing.size() && !existing.get(next).getEndTime().isAfter(occurrence.getStart())) {
+                next++;
+            }
+            if (next < existing.size() && existing.get(next).getStartTime().isBefore(occurrence.getEnd())) {
+                conflicts.add(occurrence.getStart());
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new BookingConflictException("Series conflicts with existing bookings at " + conflicts);
+        }
+    }
+
+    private double calculatePrice(Resource resource, Timeslot timeslot) {
+        return pricingEngine.price(resource, timeslot);
+    }
+
+    /**
+     * Listeners may book the slot again, so they only hear about it once the release has committed. By then
+     * the caller's change has succeeded, so a failing listener is logged and does not stop the others.
+     */
+    private void releaseSlot(Booking booking) {
+        Timeslot timeslot = new Timeslot(booking.getStartTime(), booking.getEndTime());
+        bookingRepository.afterCommit(() -> {
+            for (SlotReleaseListener listener : slotReleaseListeners) {
+                try {
+                    listener.onSlotReleased(booking.getResourceId(), timeslot);
+                } catch (RuntimeException ex) {
+                    System.err.println("Slot release listener failed: " + ex.getMessage());
+                }
+            }
+        });
+    }
+
+    private static LocalDateTime holdUntil(Duration ttl, LocalDateTime start) {
+        LocalDateTime expiry = LocalDateTime.now().plus(ttl);
+        return expiry.isBefore(start) ? expiry : start;
+    }
+
+    /**
+     * Batches and series insert auto-approved bookings as APPROVED in one statement; replays the approval
+     * of each so observers see the same REQUESTED to APPROVED transition as for a single booking.
+     */
+    private void replayAutoApprovals(List<Booking> saved) {
+        for (Booking booking : saved) {
+            if (booking.getStatus() == BookingStatus.APPROVED) {
+                Booking requested = new Booking(booking.getId(), booking.getUserId(), booking.getUsername(),
+                        booking.getResourceId(), booking.getStartTime(), booking.getEndTime(), booking.getPrice(),
+                        BookingStatus.REQUESTED, booking.getCreatedAt(), booking.getExpiresAt());
+                attachObservers(requested);
+                requested.transitionTo(BookingStatus.APPROVED, stateFactory);
+            }
+        }
+    }
+
+    private void attachObservers(Booking booking) {
+        booking.addObserver(notificationService);
+        for (BookingObserver observer : observers) {
+            booking.addObserver(observer);
+        }
+    }
 }
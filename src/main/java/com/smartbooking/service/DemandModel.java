@@ -0,0 +1,142 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingObserver;
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.domain.Resource;
+import com.smartbooking.domain.ResourceType;
+import com.smartbooking.domain.policy.DemandSignal;
+import com.smartbooking.persistence.ResourceRepository;
+import com.smartbooking.persistence.UsageAggregateRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Rolling demand per resource type and hour of the week, kept in memory from booking events. Each cell
+ * holds two exponentially decaying sums with a mean life of two weeks: approved requests and paid
+ * occupancy, both per resource of the type. A read decays one cell to the present, so it costs the same
+ * however many bookings have been seen. Transitions that are later rolled back still count; the model is
+ * an estimate.
+ */
+public class DemandModel implements BookingObserver, DemandSignal {
+    private static final int HOURS_OF_WEEK = 7 * 24;
+    private static final double MEAN_LIFE_MILLIS = Duration.ofDays(14).toMillis();
+    // A demand that repeats every week settles at this multiple of its weekly value
+    private static final double WEEKLY_SCALE = 1 / (1 - Math.exp(-Duration.ofDays(7).toMillis() / MEAN_LIFE_MILLIS));
+    private static final int SEED_WEEKS = 4;
+
+    private final UsageAggregateRepository usageAggregateRepository;
+    private final ResourceRepository resourceRepository;
+    private final double[] requests = new double[ResourceType.values().length * HOURS_OF_WEEK];
+    private final double[] occupancy = new double[requests.length];
+    private final long[] updatedAt = new long[requests.length];
+
+    public DemandModel(UsageAggregateRepository usageAggregateRepository, ResourceRepository resourceRepository) {
+        this.usageAggregateRepository = usageAggregateRepository;
+        this.resourceRepository = resourceRepository;
+    }
+
+    /**
+     * Starts the occupancy side from the average of the last four weeks of hourly aggregates, so that prices
+     * do not all start at the floor after a restart.
+     */
+    public void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, long[]> minutes = usageAggregateRepository.sumTypeMinutesByHourOfWeek(
+                now.minusWeeks(SEED_WEEKS), now);
+        for (Map.Entry<String, long[]> entry : minutes.entrySet()) {
+            ResourceType type = ResourceType.valueOf(entry.getKey());
+            int resources = resourcesOf(type);
+            if (resources == 0) {
+                continue;
+            }
+            for (int hour = 0; hour < HOURS_OF_WEEK; hour++) {
+                double weekly = entry.getValue()[hour] / 60.0 / resources / SEED_WEEKS;
+                add(occupancy, type.ordinal() * HOURS_OF_WEEK + hour, weekly * WEEKLY_SCALE);
+            }
+        }
+    }
+
+    @Override
+    public void onBookingStatusChanged(Booking booking, BookingStatus oldStatus, BookingStatus newStatus) {
+        int sign;
+        if (newStatus == BookingStatus.APPROVED && oldStatus == BookingStatus.REQUESTED) {
+            sign = 0;
+        } else if (newStatus == BookingStatus.PAID && !occupies(oldStatus)) {
+            sign = 1;
+        } else if (occupies(oldStatus) && !occupies(newStatus)) {
+            sign = -1;
+        } else {
+            return;
+        }
+        Resource resource = resourceRepository.findById(booking.getResourceId()).orElse(null);
+        if (resource == null) {
+            return;
+        }
+        int resources = Math.max(1, resourcesOf(resource.getType()));
+        if (sign == 0) {
+            addRequest(resource.getType(), booking.getStartTime(), 1.0 / resources);
+        } else {
+            addOccupancy(resource.getType(), booking.getStartTime(), booking.getEndTime(), sign * 1.0 / resources);
+        }
+    }
+
+    public void addRequest(ResourceType type, LocalDateTime start, double share) {
+        add(requests, index(type, start), share);
+    }
+
+    /**
+     * Adds {@code share} of a resource for each hour between {@code start} and {@code end}, pro rata for
+     * partly covered hours.
+     */
+    public void addOccupancy(ResourceType type, LocalDateTime start, LocalDateTime end, double share) {
+        for (LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS); hour.isBefore(end); hour = hour.plusHours(1)) {
+            LocalDateTime from = start.isAfter(hour) ? start : hour;
+            LocalDateTime to = end.isBefore(hour.plusHours(1)) ? end : hour.plusHours(1);
+            add(occupancy, index(type, hour), share * Duration.between(from, to).toMinutes() / 60.0);
+        }
+    }
+
+    @Override
+    public synchronized double demand(ResourceType type, LocalDateTime start) {
+        int cell = index(type, start);
+        decay(cell, System.currentTimeMillis());
+        return Math.max(requests[cell], occupancy[cell]) / WEEKLY_SCALE;
+    }
+
+    private synchronized void add(double[] sums, int cell, double amount) {
+        decay(cell, System.currentTimeMillis());
+        sums[cell] = Math.max(0.0, sums[cell] + amount);
+    }
+
+    private void decay(int cell, long now) {
+        long elapsed = now - updatedAt[cell];
+        if (elapsed > 0) {
+            double factor = updatedAt[cell] == 0 ? 0.0 : Math.exp(-elapsed / MEAN_LIFE_MILLIS);
+            requests[cell] *= factor;
+            occupancy[cell] *= factor;
+            updatedAt[cell] = now;
+        }
+    }
+
+    private int resourcesOf(ResourceType type) {
+        int count = 0;
+        for (Resource resource : resourceRepository.findAll()) {
+            if (resource.getType() == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int index(ResourceType type, LocalDateTime time) {
+        return type.ordinal() * HOURS_OF_WEEK + (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+
+    private static boolean occupies(BookingStatus status) {
+        return status == BookingStatus.PAID || status == BookingStatus.ACTIVE || status == BookingStatus.COMPLETED;
+    }
+}
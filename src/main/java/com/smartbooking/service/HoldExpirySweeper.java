@@ -0,0 +1,38 @@
+package com.smartbooking.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class HoldExpirySweeper {
+    private static final long SWEEP_INTERVAL_SECONDS = 30;
+
+    private final BookingService bookingService;
+    private final ScheduledExecutorService executor;
+
+    public HoldExpirySweeper(BookingService bookingService) {
+        this.bookingService = bookingService;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hold-expiry-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::sweep, 0, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    void sweep() {
+        try {
+            bookingService.expireHolds(LocalDateTime.now());
+        } catch (RuntimeException ex) {
+            System.err.println("Hold expiry sweep failed: " + ex.getMessage());
+        }
+    }
+}
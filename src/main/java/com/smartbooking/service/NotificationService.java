@@ -4,19 +4,37 @@ import com.smartbooking.domain.Booking;
 import com.smartbooking.domain.BookingObserver;
 import com.smartbooking.domain.BookingStatus;
 import com.smartbooking.domain.Notification;
+import com.smartbooking.domain.OutboxEvent;
+import com.smartbooking.domain.OutboxEventType;
 import com.smartbooking.persistence.NotificationRepository;
+import com.smartbooking.persistence.OutboxRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public class NotificationService implements BookingObserver {
     private final NotificationRepository notificationRepository;
+    private final OutboxRepository outboxRepository;
 
     public NotificationService(NotificationRepository notificationRepository) {
+        this(notificationRepository, null);
+    }
+
+    /**
+     * With an outbox, notifications are recorded in the caller's transaction and stored and pushed by
+     * the {@link OutboxRelay}.
+     */
+    public NotificationService(NotificationRepository notificationRepository, OutboxRepository outboxRepository) {
         this.notificationRepository = notificationRepository;
+        this.outboxRepository = outboxRepository;
     }
 
     public void notifyUser(long userId, String message) {
+        if (outboxRepository != null) {
+            outboxRepository.append(new OutboxEvent(0L, OutboxEventType.NOTIFICATION, userId, null, message,
+                    LocalDateTime.now()));
+            return;
+        }
         notificationRepository.create(new Notification(0L, userId, message, LocalDateTime.now()));
     }
 
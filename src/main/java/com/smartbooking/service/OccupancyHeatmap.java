@@ -0,0 +1,114 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.OutboxEvent;
+import com.smartbooking.domain.OutboxEventType;
+import com.smartbooking.domain.ResourceType;
+import com.smartbooking.domain.UsageAggregate;
+import com.smartbooking.domain.UsageAggregate.Scope;
+import com.smartbooking.domain.UsageChange;
+import com.smartbooking.domain.UsageGranularity;
+import com.smartbooking.persistence.ResourceRepository;
+import com.smartbooking.persistence.UsageAggregateRepository;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Booked minutes per resource type, weekday and hour, held in one flat int array indexed by
+ * {@code (type * 7 + weekday) * 24 + hour}. It is built from the hourly usage aggregates, follows usage
+ * changes as the outbox relay delivers them, and is rebuilt periodically so that a node whose relay did not
+ * deliver a change still converges.
+ */
+public class OccupancyHeatmap implements OutboxListener {
+    public static final int DAYS = 7;
+    public static final int HOURS = 24;
+    private static final long REBUILD_MINUTES = 10;
+    private static final ResourceType[] TYPES = ResourceType.values();
+
+    private final UsageAggregateRepository usageAggregateRepository;
+    private final ResourceRepository resourceRepository;
+    private final ScheduledExecutorService executor;
+    private volatile AtomicIntegerArray cube = new AtomicIntegerArray(TYPES.length * DAYS * HOURS);
+
+    public OccupancyHeatmap(UsageAggregateRepository usageAggregateRepository, ResourceRepository resourceRepository) {
+        this.usageAggregateRepository = usageAggregateRepository;
+        this.resourceRepository = resourceRepository;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "heatmap-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::rebuildSafely, REBUILD_MINUTES, REBUILD_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public void rebuild() {
+        AtomicIntegerArray rebuilt = new AtomicIntegerArray(TYPES.length * DAYS * HOURS);
+        for (Map.Entry<String, long[]> entry : usageAggregateRepository.sumTypeMinutesByHourOfWeek().entrySet()) {
+            int offset = ResourceType.valueOf(entry.getKey()).ordinal() * DAYS * HOURS;
+            long[] minutes = entry.getValue();
+            for (int i = 0; i < minutes.length; i++) {
+                rebuilt.set(offset + i, (int) Math.min(Integer.MAX_VALUE, minutes[i]));
+            }
+        }
+        cube = rebuilt;
+    }
+
+    @Override
+    public void onOutboxEvent(OutboxEvent event) {
+        if (event.getType() != OutboxEventType.USAGE) {
+            return;
+        }
+        UsageChange change = UsageChange.parse(event.getPayload());
+        if (change.getBookings() == 0) {
+            return;
+        }
+        resourceRepository.findById(change.getResourceId()).ifPresent(resource -> apply(change, resource.getType()));
+    }
+
+    public void apply(UsageChange change, ResourceType type) {
+        AtomicIntegerArray current = cube;
+        for (UsageAggregate delta : UsageAggregator.expand(change, type.name())) {
+            if (delta.getScope() == Scope.TYPE && delta.getGranularity() == UsageGranularity.HOUR) {
+                int day = delta.getBucketStart().getDayOfWeek().getValue() - 1;
+                current.addAndGet(index(type, day, delta.getBucketStart().getHour()),
+                        (int) delta.getBookedMinutes());
+            }
+        }
+    }
+
+    /**
+     * Booked minutes of {@code type} indexed by weekday (0 is Monday) and hour.
+     */
+    public int[][] minutes(ResourceType type) {
+        AtomicIntegerArray current = cube;
+        int[][] grid = new int[DAYS][HOURS];
+        for (int day = 0; day < DAYS; day++) {
+            for (int hour = 0; hour < HOURS; hour++) {
+                grid[day][hour] = current.get(index(type, day, hour));
+            }
+        }
+        return grid;
+    }
+
+    private static int index(ResourceType type, int day, int hour) {
+        return (type.ordinal() * DAYS + day) * HOURS + hour;
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            System.err.println("Heatmap rebuild failed: " + ex.getMessage());
+        }
+    }
+}
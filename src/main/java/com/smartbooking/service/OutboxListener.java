@@ -0,0 +1,10 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.OutboxEvent;
+
+/**
+ * Push subscriber of the outbox relay, called in event order after the event has been delivered.
+ */
+public interface OutboxListener {
+    void onOutboxEvent(OutboxEvent event);
+}
@@ -0,0 +1,203 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.AuditLog;
+import com.smartbooking.domain.Notification;
+import com.smartbooking.domain.OutboxEvent;
+import com.smartbooking.domain.OutboxEventType;
+import com.smartbooking.domain.UsageChange;
+import com.smartbooking.persistence.AuditLogRepository;
+import com.smartbooking.persistence.NotificationRepository;
+import com.smartbooking.persistence.OutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox in id order. Each batch is written to the notification and audit tables, added to the
+ * usage aggregates and removed from the outbox in one transaction, so every event is stored exactly once.
+ * Push listeners run after that transaction commits.
+ *
+ * Ids are assigned at insert, not at commit, so an event whose transaction commits late can be delivered
+ * after events with higher ids. Order is only guaranteed between events whose writers were serialised,
+ * such as the successive changes of one booking, which all lock its resource row.
+ *
+ * When a batch fails, its events are relayed one at a time up to the one at fault, so a single bad event
+ * does not hold back the others for longer than its retries. An event that fails {@value #MAX_ATTEMPTS}
+ * times in a row is moved to {@code outbox_dead_letter}.
+ */
+public class OutboxRelay {
+    private static final long POLL_MILLIS = 200;
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final OutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final UsageAggregator usageAggregator;
+    private final List<OutboxListener> listeners = new CopyOnWriteArrayList<>();
+    // Consecutive failures of events relayed on their own, by event id
+    private final Map<Long, Integer> failures = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+
+    public OutboxRelay(OutboxRepository outboxRepository, NotificationRepository notificationRepository,
+            AuditLogRepository auditLogRepository) {
+        this(outboxRepository, notificationRepository, auditLogRepository, null);
+    }
+
+    public OutboxRelay(OutboxRepository outboxRepository, NotificationRepository notificationRepository,
+            AuditLogRepository auditLogRepository, UsageAggregator usageAggregator) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.usageAggregator = usageAggregator;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void addListener(OutboxListener listener) {
+        listeners.add(listener);
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::drainSafely, 0, POLL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public int drain() {
+        int delivered = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = relayBatch();
+            for (OutboxEvent event : batch) {
+                for (OutboxListener listener : listeners) {
+                    listener.onOutboxEvent(event);
+                }
+            }
+            delivered += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        return delivered;
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (RuntimeException ex) {
+            // Undelivered events stay in the outbox and are retried on the next poll.
+            System.err.println("Outbox relay failed: " + ex.getMessage());
+        }
+    }
+
+    private List<OutboxEvent> relayBatch() {
+        try {
+            List<OutboxEvent> events = outboxRepository.inTransaction(() -> relay(BATCH_SIZE, null));
+            failures.clear();
+            return events;
+        } catch (RuntimeException ex) {
+            System.err.println("Outbox batch failed, relaying events one at a time: " + ex.getMessage());
+            return relayIndividually();
+        }
+    }
+
+    /**
+     * Relays events one per transaction, stopping at the first failure so that later events still wait
+     * for the one at fault.
+     */
+    private List<OutboxEvent> relayIndividually() {
+        List<OutboxEvent> delivered = new ArrayList<>();
+        while (delivered.size() < BATCH_SIZE) {
+            OutboxEvent[] attempted = new OutboxEvent[1];
+            List<OutboxEvent> events;
+            try {
+                events = outboxRepository.inTransaction(() -> relay(1, attempted));
+            } catch (RuntimeException ex) {
+                if (attempted[0] != null) {
+                    recordFailure(attempted[0], ex);
+                }
+                break;
+            }
+            if (events.isEmpty()) {
+                break;
+            }
+            failures.remove(events.get(0).getId());
+            delivered.addAll(events);
+        }
+        return delivered;
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException ex) {
+        int attempts = failures.merge(event.getId(), 1, Integer::sum);
+        if (attempts < MAX_ATTEMPTS) {
+            return;
+        }
+        String error = String.valueOf(ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+        boolean moved = outboxRepository.inTransaction(() -> {
+            if (!outboxRepository.tryLockRelay()) {
+                return false;
+            }
+            outboxRepository.deadLetter(event.getId(), error, LocalDateTime.now());
+            return true;
+        });
+        if (moved) {
+            failures.remove(event.getId());
+            System.err.println("Outbox event " + event.getId() + " failed " + attempts
+                    + " times, moved to outbox_dead_letter: " + error);
+        }
+    }
+
+    /**
+     * Must run inside a transaction. Reports the events it read through {@code attempted}, if given, so that
+     * a failure can be pinned on them after the rollback.
+     */
+    private List<OutboxEvent> relay(int limit, OutboxEvent[] attempted) {
+        if (!outboxRepository.tryLockRelay()) {
+            return List.of();
+        }
+        List<OutboxEvent> events = outboxRepository.findOldest(limit);
+        if (events.isEmpty()) {
+            return events;
+        }
+        if (attempted != null) {
+            attempted[0] = events.get(0);
+        }
+        List<Notification> notifications = new ArrayList<>();
+        List<AuditLog> auditLogs = new ArrayList<>();
+        List<UsageChange> usageChanges = new ArrayList<>();
+        List<Long> ids = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            if (event.getType() == OutboxEventType.NOTIFICATION) {
+                notifications.add(new Notification(0L, event.getUserId(), event.getPayload(),
+                        event.getCreatedAt()));
+            } else if (event.getType() == OutboxEventType.USAGE) {
+                usageChanges.add(UsageChange.parse(event.getPayload()));
+            } else {
+                auditLogs.add(new AuditLog(0L, event.getUserId(), event.getAction(), event.getPayload(),
+                        event.getCreatedAt()));
+            }
+            ids.add(event.getId());
+        }
+        if (!notifications.isEmpty()) {
+            notificationRepository.createAll(notifications);
+        }
+        if (!auditLogs.isEmpty()) {
+            auditLogRepository.createAll(auditLogs);
+        }
+        if (!usageChanges.isEmpty() && usageAggregator != null) {
+            usageAggregator.apply(usageChanges);
+        }
+        outboxRepository.delete(ids);
+        return events;
+    }
+}
@@ -1,5 +1,6 @@
 package com.smartbooking.service;
 
+import com.smartbooking.domain.Booking;
 import com.smartbooking.domain.Payment;
 import com.smartbooking.persistence.PaymentRepository;
 
@@ -7,18 +8,33 @@ import java.time.LocalDateTime;
 
 public class PaymentService {
     private final PaymentRepository paymentRepository;
+    private final UsageAggregator usageAggregator;
 
     public PaymentService(PaymentRepository paymentRepository) {
+        this(paymentRepository, null);
+    }
+
+    /**
+     * With an aggregator, every payment and refund is also added to the revenue of the booking's buckets.
+     */
+    public PaymentService(PaymentRepository paymentRepository, UsageAggregator usageAggregator) {
         this.paymentRepository = paymentRepository;
+        this.usageAggregator = usageAggregator;
     }
 
-    public Payment recordPayment(long bookingId, double amount, String method) {
-        Payment payment = new Payment(0L, bookingId, amount, method, "PAID", LocalDateTime.now());
+    public Payment recordPayment(Booking booking, double amount, String method) {
+        Payment payment = new Payment(0L, booking.getId(), amount, method, "PAID", LocalDateTime.now());
+        if (usageAggregator != null) {
+            usageAggregator.recordRevenue(booking, amount);
+        }
         return paymentRepository.create(payment);
     }
 
-    public Payment recordRefund(long bookingId, double amount) {
-        Payment payment = new Payment(0L, bookingId, amount, "REFUND", "REFUNDED", LocalDateTime.now());
+    public Payment recordRefund(Booking booking, double amount) {
+        Payment payment = new Payment(0L, booking.getId(), amount, "REFUND", "REFUNDED", LocalDateTime.now());
+        if (usageAggregator != null) {
+            usageAggregator.recordRevenue(booking, -amount);
+        }
         return paymentRepository.create(payment);
     }
 }
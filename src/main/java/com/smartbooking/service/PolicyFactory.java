@@ -6,7 +6,24 @@ import java.time.LocalTime;
 import java.util.List;
 
 public class PolicyFactory {
+    private final DemandSignal demandSignal;
+
+    public PolicyFactory() {
+        this(null);
+    }
+
+    /**
+     * {@code SURGE} pricing follows {@code demandSignal}; without one it falls back to the base price.
+     */
+    public PolicyFactory(DemandSignal demandSignal) {
+        this.demandSignal = demandSignal;
+    }
+
     public PricingPolicy createPricingPolicy(String key) {
+        if ("SURGE".equalsIgnoreCase(key) && demandSignal != null) {
+            // No discount below half of the resources wanted, at most +50% once all of them are
+            return new SurgePricingPolicy(demandSignal, 0.5, 1.0, 1.0, 1.5);
+        }
         if ("PEAK_HOURS".equalsIgnoreCase(key)) {
             return new PeakHoursPricingPolicy(1.2, LocalTime.of(18, 0), LocalTime.of(22, 0));
         }
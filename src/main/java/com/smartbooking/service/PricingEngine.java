@@ -0,0 +1,106 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.Resource;
+import com.smartbooking.domain.Timeslot;
+import com.smartbooking.domain.policy.PricingPolicy;
+import com.smartbooking.util.EpochMinutes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prices timeslots minute by minute. Each resource's pricing policy is compiled once into a table of the
+ * cumulative price of every minute of a week, found by asking the policy for the price of each single
+ * minute. A timeslot's price is then the difference of two table entries, plus whole weeks, so a booking
+ * that runs into peak hours pays the peak rate for exactly those minutes, in constant time. Policies
+ * without fixed weekly rates are asked directly.
+ */
+public class PricingEngine {
+    private static final int WEEK_MINUTES = 7 * 24 * 60;
+    // Any Monday will do; compiled policies only look at the time of the week
+    private static final LocalDateTime REFERENCE_WEEK = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int REFERENCE_MINUTE = EpochMinutes.of(REFERENCE_WEEK);
+
+    private final PolicyFactory policyFactory;
+    private final Map<Long, RateTable> tables = new ConcurrentHashMap<>();
+
+    public PricingEngine(PolicyFactory policyFactory) {
+        this.policyFactory = policyFactory;
+    }
+
+    public double price(Resource resource, Timeslot timeslot) {
+        return prices(resource, List.of(timeslot))[0];
+    }
+
+    /**
+     * Prices of {@code timeslots} on one resource, in the same order, looking up the rate table once.
+     */
+    public double[] prices(Resource resource, List<Timeslot> timeslots) {
+        double[] prices = new double[timeslots.size()];
+        RateTable table = tables.get(resource.getId());
+        if (table == null || !table.matches(resource)) {
+            PricingPolicy policy = policyFactory.createPricingPolicy(resource.getPricingPolicyKey());
+            if (!policy.hasWeeklyRates()) {
+                for (int i = 0; i < prices.length; i++) {
+                    Timeslot timeslot = timeslots.get(i);
+                    double hours = timeslot.durationMinutes() / 60.0;
+                    prices[i] = policy.calculatePrice(resource, timeslot, hours * resource.getBasePricePerHour());
+                }
+                return prices;
+            }
+            table = RateTable.compile(resource, policy);
+            tables.put(resource.getId(), table);
+        }
+        for (int i = 0; i < prices.length; i++) {
+            Timeslot timeslot = timeslots.get(i);
+            prices[i] = roundToCents(table.price(timeslot.getStart(), timeslot.durationMinutes()));
+        }
+        return prices;
+    }
+
+    private static double roundToCents(double price) {
+        return Math.round(price * 100) / 100.0;
+    }
+
+    private static final class RateTable {
+        private final String pricingPolicyKey;
+        private final double basePricePerHour;
+        // cumulative[m] is the price of the first m minutes of the week
+        private final double[] cumulative;
+
+        private RateTable(String pricingPolicyKey, double basePricePerHour, double[] cumulative) {
+            this.pricingPolicyKey = pricingPolicyKey;
+            this.basePricePerHour = basePricePerHour;
+            this.cumulative = cumulative;
+        }
+
+        static RateTable compile(Resource resource, PricingPolicy policy) {
+            double perMinute = resource.getBasePricePerHour() / 60.0;
+            double[] cumulative = new double[WEEK_MINUTES + 1];
+            for (int minute = 0; minute < WEEK_MINUTES; minute++) {
+                LocalDateTime start = REFERENCE_WEEK.plusMinutes(minute);
+                cumulative[minute + 1] = cumulative[minute]
+                        + policy.calculatePrice(resource, new Timeslot(start, start.plusMinutes(1)), perMinute);
+            }
+            return new RateTable(resource.getPricingPolicyKey(), resource.getBasePricePerHour(), cumulative);
+        }
+
+        boolean matches(Resource resource) {
+            return pricingPolicyKey.equals(resource.getPricingPolicyKey())
+                    && basePricePerHour == resource.getBasePricePerHour();
+        }
+
+        double price(LocalDateTime start, long minutes) {
+            int from = Math.floorMod(EpochMinutes.of(start) - REFERENCE_MINUTE, WEEK_MINUTES);
+            long weeks = minutes / WEEK_MINUTES;
+            int rest = (int) (minutes % WEEK_MINUTES);
+            double price = weeks * cumulative[WEEK_MINUTES];
+            if (from + rest <= WEEK_MINUTES) {
+                return price + cumulative[from + rest] - cumulative[from];
+            }
+            return price + cumulative[WEEK_MINUTES] - cumulative[from] + cumulative[from + rest - WEEK_MINUTES];
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.Resource;
+import com.smartbooking.domain.Timeslot;
+import com.smartbooking.persistence.ResourceRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices many slots at once without booking them, e.g. every cell of a week timetable across rooms. Only the
+ * resource cache and the compiled rate tables are read; the bookings table is never touched.
+ */
+public class QuoteService {
+    static final int MAX_QUOTES = 10_000;
+
+    private final ResourceRepository resourceRepository;
+    private final PricingEngine pricingEngine;
+
+    public QuoteService(ResourceRepository resourceRepository, PricingEngine pricingEngine) {
+        this.resourceRepository = resourceRepository;
+        this.pricingEngine = pricingEngine;
+    }
+
+    /**
+     * Prices in the order of {@code requests}. Slots are grouped by resource so that each resource and its
+     * rate table are looked up once.
+     */
+    public double[] quote(List<BookingRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one slot is required");
+        }
+        if (requests.size() > MAX_QUOTES) {
+            throw new IllegalArgumentException("At most " + MAX_QUOTES + " slots per quote");
+        }
+        Map<Long, List<Integer>> positionsByResource = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            positionsByResource.computeIfAbsent(requests.get(i).getResourceId(), id -> new ArrayList<>()).add(i);
+        }
+        double[] prices = new double[requests.size()];
+        for (Map.Entry<Long, List<Integer>> entry : positionsByResource.entrySet()) {
+            Resource resource = resourceRepository.findById(entry.getKey())
+                    .orElseThrow(() -> new IllegalArgumentException("Resource not found: " + entry.getKey()));
+            List<Integer> positions = entry.getValue();
+            List<Timeslot> timeslots = new ArrayList<>(positions.size());
+            for (int position : positions) {
+                timeslots.add(requests.get(position).getTimeslot());
+            }
+            double[] resourcePrices = pricingEngine.prices(resource, timeslots);
+            for (int i = 0; i < resourcePrices.length; i++) {
+                prices[positions.get(i)] = resourcePrices[i];
+            }
+        }
+        return prices;
+    }
+}
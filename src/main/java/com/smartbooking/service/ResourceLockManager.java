@@ -0,0 +1,116 @@
+package com.smartbooking.service;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed array of locks indexed by a hash of the resource id. Writers on different resources almost
+ * never share a stripe; writers on the same resource always do. Multi-resource callers acquire
+ * stripes in ascending index order so they cannot deadlock with each other.
+ */
+public class ResourceLockManager {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ResourceLockManager(int stripeCount) {
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = stripeCount - 1;
+    }
+
+    public <T> T withLock(long resourceId, Supplier<T> work) {
+        ReentrantLock lock = stripes[stripeFor(resourceId)];
+        acquire(lock);
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> T withLocks(Collection<Long> resourceIds, Supplier<T> work) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (long resourceId : resourceIds) {
+            indexes.add(stripeFor(resourceId));
+        }
+        Deque<ReentrantLock> held = new ArrayDeque<>(indexes.size());
+        try {
+            for (int index : indexes) {
+                acquire(stripes[index]);
+                held.push(stripes[index]);
+            }
+            return work.get();
+        } finally {
+            while (!held.isEmpty()) {
+                held.pop().unlock();
+            }
+        }
+    }
+
+    public LockStats stats() {
+        return new LockStats(acquisitions.sum(), contended.sum(), totalWaitNanos.sum(), maxWaitNanos.get());
+    }
+
+    int stripeFor(long resourceId) {
+        int hash = Long.hashCode(resourceId);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void acquire(ReentrantLock lock) {
+        acquisitions.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+        long started = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - started;
+        contended.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    public static class LockStats {
+        private final long acquisitions;
+        private final long contended;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        LockStats(long acquisitions, long contended, long totalWaitNanos, long maxWaitNanos) {
+            this.acquisitions = acquisitions;
+            this.contended = contended;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public long getAcquisitions() {
+            return acquisitions;
+        }
+
+        public long getContended() {
+            return contended;
+        }
+
+        public double getAverageWaitMillis() {
+            return contended == 0 ? 0 : totalWaitNanos / 1_000_000.0 / contended;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+    }
+}
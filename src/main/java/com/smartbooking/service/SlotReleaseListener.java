@@ -0,0 +1,7 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.Timeslot;
+
+public interface SlotReleaseListener {
+    void onSlotReleased(long resourceId, Timeslot timeslot);
+}
@@ -0,0 +1,62 @@
+package com.smartbooking.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Startup breakdown: how long each initialization phase took, and when each milestone was reached
+ * measured from JVM start.
+ */
+public class StartupTimings {
+    private final long jvmStartMillis;
+    private final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Long> milestones = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public StartupTimings() {
+        this.jvmStartMillis = ProcessHandle.current().info().startInstant()
+                .map(instant -> instant.toEpochMilli())
+                .orElse(System.currentTimeMillis());
+    }
+
+    public <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            phases.put(phase, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public void time(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public void mark(String milestone) {
+        milestones.put(milestone, System.currentTimeMillis() - jvmStartMillis);
+    }
+
+    public Map<String, Long> getPhases() {
+        synchronized (phases) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+
+    public Map<String, Long> getMilestones() {
+        synchronized (milestones) {
+            return new LinkedHashMap<>(milestones);
+        }
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder("Startup:");
+        getMilestones().forEach((name, millis) -> summary.append(' ').append(name).append('@').append(millis).append("ms"));
+        summary.append(" |");
+        getPhases().forEach((name, millis) -> summary.append(' ').append(name).append('=').append(millis).append("ms"));
+        return summary.toString();
+    }
+}
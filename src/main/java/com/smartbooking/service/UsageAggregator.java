@@ -0,0 +1,133 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingObserver;
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.domain.OutboxEvent;
+import com.smartbooking.domain.OutboxEventType;
+import com.smartbooking.domain.UsageAggregate;
+import com.smartbooking.domain.UsageAggregate.Scope;
+import com.smartbooking.domain.UsageChange;
+import com.smartbooking.domain.UsageGranularity;
+import com.smartbooking.persistence.OutboxRepository;
+import com.smartbooking.persistence.ResourceRepository;
+import com.smartbooking.persistence.UsageAggregateRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the usage aggregates current as bookings change. A booking occupies its slot from the moment it is
+ * paid until it is cancelled or refunded; payments and refunds come in through {@link PaymentService}.
+ */
+public class UsageAggregator implements BookingObserver {
+    private final UsageAggregateRepository usageAggregateRepository;
+    private final ResourceRepository resourceRepository;
+    private final OutboxRepository outboxRepository;
+
+    public UsageAggregator(UsageAggregateRepository usageAggregateRepository, ResourceRepository resourceRepository) {
+        this(usageAggregateRepository, resourceRepository, null);
+    }
+
+    /**
+     * With an outbox, changes are recorded in the caller's transaction and added to the aggregates by the
+     * {@link OutboxRelay}, so booking transactions never wait on each other for the shared aggregate rows.
+     */
+    public UsageAggregator(UsageAggregateRepository usageAggregateRepository, ResourceRepository resourceRepository,
+            OutboxRepository outboxRepository) {
+        this.usageAggregateRepository = usageAggregateRepository;
+        this.resourceRepository = resourceRepository;
+        this.outboxRepository = outboxRepository;
+    }
+
+    @Override
+    public void onBookingStatusChanged(Booking booking, BookingStatus oldStatus, BookingStatus newStatus) {
+        if (newStatus == BookingStatus.PAID && !occupies(oldStatus)) {
+            record(booking, 1, 0.0);
+        } else if (occupies(oldStatus) && !occupies(newStatus)) {
+            record(booking, -1, 0.0);
+        }
+    }
+
+    /**
+     * A payment (positive) or refund (negative) for {@code booking}.
+     */
+    public void recordRevenue(Booking booking, double amount) {
+        record(booking, 0, amount);
+    }
+
+    public void apply(List<UsageChange> changes) {
+        // Sorted so that concurrent writers lock the aggregate rows in the same order
+        Map<String, UsageAggregate> merged = new TreeMap<>();
+        for (UsageChange change : changes) {
+            String type = resourceRepository.findById(change.getResourceId())
+                    .map(resource -> resource.getType().name()).orElse(null);
+            for (UsageAggregate delta : expand(change, type)) {
+                merged.merge(delta.getScope() + "|" + delta.getScopeKey() + "|" + delta.getGranularity() + "|"
+                        + delta.getBucketStart(), delta,
+                        (a, b) -> a.plus(b.getBookedMinutes(), b.getBookings(), b.getRevenue()));
+            }
+        }
+        if (!merged.isEmpty()) {
+            usageAggregateRepository.add(new ArrayList<>(merged.values()));
+        }
+    }
+
+    /**
+     * The deltas {@code change} adds to every bucket it touches, for the resource and, when {@code type} is
+     * known, for its resource type. Booked minutes are split across the buckets the booking spans.
+     */
+    public static List<UsageAggregate> expand(UsageChange change, String type) {
+        List<UsageAggregate> deltas = new ArrayList<>();
+        String resourceKey = Long.toString(change.getResourceId());
+        for (UsageGranularity granularity : UsageGranularity.values()) {
+            LocalDateTime bucket = granularity.bucketStart(change.getStartTime());
+            long minutes = change.getBookings() == 0 ? 0
+                    : overlapMinutes(change, bucket, granularity.next(bucket)) * change.getBookings();
+            addDelta(deltas, resourceKey, type, granularity, bucket, minutes, change.getBookings(),
+                    change.getRevenue());
+            if (change.getBookings() == 0) {
+                continue;
+            }
+            for (bucket = granularity.next(bucket); bucket.isBefore(change.getEndTime());
+                    bucket = granularity.next(bucket)) {
+                minutes = overlapMinutes(change, bucket, granularity.next(bucket)) * change.getBookings();
+                addDelta(deltas, resourceKey, type, granularity, bucket, minutes, 0, 0.0);
+            }
+        }
+        return deltas;
+    }
+
+    private static void addDelta(List<UsageAggregate> deltas, String resourceKey, String type,
+            UsageGranularity granularity, LocalDateTime bucket, long minutes, int bookings, double revenue) {
+        deltas.add(new UsageAggregate(Scope.RESOURCE, resourceKey, granularity, bucket, minutes, bookings, revenue));
+        if (type != null) {
+            deltas.add(new UsageAggregate(Scope.TYPE, type, granularity, bucket, minutes, bookings, revenue));
+        }
+    }
+
+    private static long overlapMinutes(UsageChange change, LocalDateTime bucketStart, LocalDateTime bucketEnd) {
+        LocalDateTime start = change.getStartTime().isAfter(bucketStart) ? change.getStartTime() : bucketStart;
+        LocalDateTime end = change.getEndTime().isBefore(bucketEnd) ? change.getEndTime() : bucketEnd;
+        return Math.max(0, Duration.between(start, end).toMinutes());
+    }
+
+    private void record(Booking booking, int bookings, double revenue) {
+        UsageChange change = new UsageChange(booking.getResourceId(), booking.getStartTime(), booking.getEndTime(),
+                bookings, revenue);
+        if (outboxRepository != null) {
+            outboxRepository.append(new OutboxEvent(0L, OutboxEventType.USAGE, booking.getUserId(), null,
+                    change.encode(), LocalDateTime.now()));
+            return;
+        }
+        apply(List.of(change));
+    }
+
+    private static boolean occupies(BookingStatus status) {
+        return status == BookingStatus.PAID || status == BookingStatus.ACTIVE || status == BookingStatus.COMPLETED;
+    }
+}
@@ -0,0 +1,89 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.WaitlistEntry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Waiting entries per resource, ordered by start time. A released slot can only help entries that
+ * overlap it, and those all start within {@code [releaseStart - longestEntry, releaseEnd)}, so a lookup
+ * is a single range scan on one resource's tree.
+ */
+public class WaitlistIndex {
+    private final Map<Long, ResourceQueue> queues = new ConcurrentHashMap<>();
+
+    public void add(WaitlistEntry entry) {
+        queues.computeIfAbsent(entry.getResourceId(), id -> new ResourceQueue()).add(entry);
+    }
+
+    public void remove(WaitlistEntry entry) {
+        ResourceQueue queue = queues.get(entry.getResourceId());
+        if (queue != null) {
+            queue.remove(entry);
+        }
+    }
+
+    /**
+     * Entries on {@code resourceId} overlapping {@code [start, end)}, oldest request first.
+     */
+    public List<WaitlistEntry> candidates(long resourceId, LocalDateTime start, LocalDateTime end) {
+        ResourceQueue queue = queues.get(resourceId);
+        if (queue == null) {
+            return List.of();
+        }
+        return queue.overlapping(start, end);
+    }
+
+    public int size() {
+        int size = 0;
+        for (ResourceQueue queue : queues.values()) {
+            size += queue.size;
+        }
+        return size;
+    }
+
+    private static final class ResourceQueue {
+        private final NavigableMap<LocalDateTime, List<WaitlistEntry>> byStart = new TreeMap<>();
+        private long longestMinutes;
+        private int size;
+
+        synchronized void add(WaitlistEntry entry) {
+            byStart.computeIfAbsent(entry.getStartTime(), t -> new ArrayList<>()).add(entry);
+            longestMinutes = Math.max(longestMinutes,
+                    Duration.between(entry.getStartTime(), entry.getEndTime()).toMinutes());
+            size++;
+        }
+
+        synchronized void remove(WaitlistEntry entry) {
+            List<WaitlistEntry> entries = byStart.get(entry.getStartTime());
+            if (entries != null && entries.removeIf(e -> e.getId() == entry.getId())) {
+                size--;
+                if (entries.isEmpty()) {
+                    byStart.remove(entry.getStartTime());
+                }
+            }
+        }
+
+        synchronized List<WaitlistEntry> overlapping(LocalDateTime start, LocalDateTime end) {
+            List<WaitlistEntry> result = new ArrayList<>();
+            for (List<WaitlistEntry> entries : byStart
+                    .subMap(start.minusMinutes(longestMinutes), true, end, false).values()) {
+                for (WaitlistEntry entry : entries) {
+                    if (entry.getEndTime().isAfter(start)) {
+                        result.add(entry);
+                    }
+                }
+            }
+            result.sort(Comparator.comparingLong(WaitlistEntry::getId));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.smartbooking.service;
+
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.Timeslot;
+import com.smartbooking.domain.WaitlistEntry;
+import com.smartbooking.domain.WaitlistStatus;
+import com.smartbooking.persistence.ResourceRepository;
+import com.smartbooking.persistence.WaitlistRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Offers released slots to waiting users. Releases are handled one at a time on a background thread, so
+ * the cancelling request neither waits for the reallocation nor sees its failures.
+ */
+public class WaitlistService implements SlotReleaseListener {
+    private final WaitlistRepository waitlistRepository;
+    private final ResourceRepository resourceRepository;
+    private final BookingService bookingService;
+    private final NotificationService notificationService;
+    private final AuditService auditService;
+    private final WaitlistIndex index = new WaitlistIndex();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "waitlist-reallocation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WaitlistService(WaitlistRepository waitlistRepository,
+            ResourceRepository resourceRepository,
+            BookingService bookingService,
+            NotificationService notificationService,
+            AuditService auditService) {
+        this.waitlistRepository = waitlistRepository;
+        this.resourceRepository = resourceRepository;
+        this.bookingService = bookingService;
+        this.notificationService = notificationService;
+        this.auditService = auditService;
+    }
+
+    public void loadWaiting() {
+        for (WaitlistEntry entry : waitlistRepository.findWaiting()) {
+            index.add(entry);
+        }
+    }
+
+    public WaitlistEntry join(long userId, long resourceId, Timeslot timeslot) {
+        if (timeslot.getStart().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Start time must be in the future");
+        }
+        resourceRepository.findById(resourceId)
+                .orElseThrow(() -> new IllegalArgumentException("Resource not found"));
+        WaitlistEntry saved = waitlistRepository.create(new WaitlistEntry(0L, userId, resourceId,
+                timeslot.getStart(), timeslot.getEnd(), WaitlistStatus.WAITING, null, LocalDateTime.now()));
+        index.add(saved);
+        auditService.log(userId, "WAITLIST_JOINED", "Waitlist entry " + saved.getId() + " for resource " + resourceId);
+        return saved;
+    }
+
+    public List<WaitlistEntry> listUserEntries(long userId) {
+        return waitlistRepository.findByUser(userId);
+    }
+
+    @Override
+    public void onSlotReleased(long resourceId, Timeslot timeslot) {
+        executor.execute(() -> reallocate(resourceId, timeslot));
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void reallocate(long resourceId, Timeslot timeslot) {
+        LocalDateTime now = LocalDateTime.now();
+        for (WaitlistEntry entry : index.candidates(resourceId, timeslot.getStart(), timeslot.getEnd())) {
+            try {
+                if (!entry.getStartTime().isAfter(now)) {
+                    index.remove(entry);
+                    waitlistRepository.markExpired(entry.getId());
+                    continue;
+                }
+                Booking booking;
+                try {
+                    // The booking and the fulfilled entry commit together or not at all
+                    booking = waitlistRepository.inTransaction(() -> {
+                        Booking created = bookingService.createBooking(entry.getUserId(), resourceId,
+                                new Timeslot(entry.getStartTime(), entry.getEndTime()));
+                        if (!waitlistRepository.markFulfilled(entry.getId(), created.getId())) {
+                            throw new NoLongerWaitingException();
+                        }
+                        return created;
+                    });
+                } catch (BookingConflictException ex) {
+                    // Still blocked by another booking; keep waiting
+                    continue;
+                } catch (NoLongerWaitingException ex) {
+                    // Cancelled or fulfilled elsewhere; the booking made for it was rolled back
+                    index.remove(entry);
+                    continue;
+                }
+                index.remove(entry);
+                notificationService.notifyUser(entry.getUserId(), String.format(
+                        "Waitlist entry %d fulfilled: booking %d created", entry.getId(), booking.getId()));
+            } catch (RuntimeException ex) {
+                System.err.println("Failed to offer released slot to waitlist entry " + entry.getId() + ": "
+                        + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rolls back the booking made for an entry that was cancelled or fulfilled in the meantime.
+     */
+    private static final class NoLongerWaitingException extends RuntimeException {
+        private NoLongerWaitingException() {
+            super(null, null, false, false);
+        }
+    }
+}
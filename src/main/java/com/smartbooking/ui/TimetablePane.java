@@ -1,6 +1,7 @@
 package com.smartbooking.ui;
 
-import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.TimetableSlot;
+import com.smartbooking.domain.User;
 import com.smartbooking.service.AppServices;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -198,15 +199,15 @@ public class TimetablePane extends VBox {
         LocalDateTime start = startOfWeek.atTime(START_HOUR, 0);
         LocalDateTime end = startOfWeek.plusDays(7).atTime(END_HOUR, 0);
 
-        List<Booking> bookings = services.getBookingService().listBookingsForResource(selectedResourceId, start,
-                end);
+        List<TimetableSlot> bookings = services.getBookingService().listBookingsForResource(selectedResourceId,
+                start, end);
 
-        for (Booking b : bookings) {
+        for (TimetableSlot b : bookings) {
             renderBooking(b, startOfWeek);
         }
     }
 
-    private void renderBooking(Booking b, LocalDate startOfWeek) {
+    private void renderBooking(TimetableSlot b, LocalDate startOfWeek) {
         LocalDate bDate = b.getStartTime().toLocalDate();
         long dayIndex = ChronoUnit.DAYS.between(startOfWeek, bDate);
         if (dayIndex < 0 || dayIndex > 6)
@@ -227,8 +228,8 @@ public class TimetablePane extends VBox {
             block.getStyleClass().add("booking-other");
         }
 
-        Label nameLabel = new Label(
-                isMine ? b.getStatus().toString() : (b.getUsername() != null ? b.getUsername() : "Occupied"));
+        Label nameLabel = new Label(isMine ? b.getStatus().toString()
+                : services.getUserRepository().findById(b.getUserId()).map(User::getUsername).orElse("Occupied"));
         nameLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 10px;");
         Label timeLabel = new Label(b.getStartTime().toLocalTime() + "-" + b.getEndTime().toLocalTime());
         timeLabel.setStyle("-fx-font-size: 9px;");
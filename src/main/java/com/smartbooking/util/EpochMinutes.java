@@ -0,0 +1,76 @@
+package com.smartbooking.util;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneOffset;
+
+/**
+ * Compact time for in-memory structures: a local date-time as the int count of minutes since
+ * 1970-01-01T00:00, read in a fixed zone (UTC) so that the count does not depend on the server's zone.
+ * Seconds are truncated; bookings are made on whole minutes. An int covers the years 1970 +/- 4000.
+ *
+ * Indexes and caches hold these instead of {@link LocalDateTime}, which costs three objects (72 bytes)
+ * per value; conversion happens where times enter from the API or the database and where they leave.
+ */
+public final class EpochMinutes {
+    public static final ZoneOffset ZONE = ZoneOffset.UTC;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private EpochMinutes() {
+    }
+
+    public static int of(LocalDateTime time) {
+        return Math.toIntExact(Math.floorDiv(time.toEpochSecond(ZONE), 60));
+    }
+
+    public static LocalDateTime toLocalDateTime(int minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60L, 0, ZONE);
+    }
+
+    /**
+     * Minutes of an ISO local date-time as the repositories store it ({@code 2025-03-10T09:00}, optionally
+     * with seconds), read straight from the characters; anything else goes through {@link LocalDateTime}.
+     */
+    public static int parse(CharSequence text) {
+        if (text.length() >= 16 && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':' && (text.length() == 16 || text.charAt(16) == ':')) {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 2);
+            int day = digits(text, 8, 2);
+            int hour = digits(text, 11, 2);
+            int minute = digits(text, 14, 2);
+            if (year >= 0 && month >= 1 && month <= 12 && day >= 1
+                    && day <= Month.of(month).length(Year.isLeap(year)) && hour >= 0 && hour < 24
+                    && minute >= 0 && minute < 60) {
+                return Math.toIntExact(daysFromCivil(year, month, day) * MINUTES_PER_DAY + hour * 60L + minute);
+            }
+        }
+        return of(LocalDateTime.parse(text));
+    }
+
+    private static int digits(CharSequence text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date (Howard Hinnant's days_from_civil).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
@@ -0,0 +1,99 @@
+package com.smartbooking.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel: deadlines are hashed into a fixed ring of buckets so that
+ * scheduling is O(1) and each tick only touches the entries of a single bucket.
+ * Entries further away than one rotation carry a remaining-rounds counter.
+ *
+ * {@link #schedule} may be called from any thread; {@link #advance} must only be
+ * called from the single thread that drives the wheel.
+ */
+public class HashedTimingWheel<T> {
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<List<Entry<T>>> buckets;
+    private final Queue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+    private int size;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    public void schedule(T task, long deadlineMillis) {
+        pending.add(new Entry<>(task, deadlineMillis));
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis} and returns the tasks whose deadline has passed.
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        transferPending(expired);
+        long nowTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        while (currentTick <= nowTick) {
+            List<Entry<T>> bucket = buckets.get((int) (currentTick & mask));
+            int kept = 0;
+            for (Entry<T> entry : bucket) {
+                if (entry.remainingRounds <= 0) {
+                    expired.add(entry.task);
+                    size--;
+                } else {
+                    entry.remainingRounds--;
+                    bucket.set(kept++, entry);
+                }
+            }
+            bucket.subList(kept, bucket.size()).clear();
+            currentTick++;
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size + pending.size();
+    }
+
+    private void transferPending(List<T> expired) {
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+            // Round up so that a task never fires before its deadline.
+            long deadlineTick = Math.floorDiv(entry.deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+            if (deadlineTick < currentTick) {
+                expired.add(entry.task);
+                continue;
+            }
+            entry.remainingRounds = (deadlineTick - currentTick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(entry);
+            size++;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T task;
+        private final long deadlineMillis;
+        private long remainingRounds;
+
+        private Entry(T task, long deadlineMillis) {
+            this.task = task;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartbooking.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of booked intervals on one resource, held as parallel int arrays of {@link EpochMinutes} sorted by
+ * start, so that a conflict check is a binary search and a short scan that allocate nothing. A hold carries
+ * the minute it lapses; other bookings never lapse.
+ */
+public final class IntervalIndex {
+    public static final int NEVER = Integer.MAX_VALUE;
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] lapses;
+    private final int size;
+    private final int longest;
+
+    private IntervalIndex(int[] starts, int[] ends, int[] lapses, int size, int longest) {
+        this.starts = starts;
+        this.ends = ends;
+        this.lapses = lapses;
+        this.size = size;
+        this.longest = longest;
+    }
+
+    /**
+     * Whether an interval still held at {@code now} intersects [start, end).
+     */
+    public boolean overlaps(int start, int end, int now) {
+        // Everything from the first interval starting at or after end is too late
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < end) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        // No interval is longer than the longest, so earlier starts cannot reach start
+        for (int i = low - 1; i >= 0 && starts[i] > start - longest; i--) {
+            if (ends[i] > start && lapses[i] > now) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Collects intervals in start order.
+     */
+    public static final class Builder {
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int[] lapses = new int[16];
+        private int size;
+        private int longest;
+
+        public Builder add(int start, int end, int lapsesAt) {
+            if (size > 0 && start < starts[size - 1]) {
+                throw new IllegalArgumentException("Intervals must be added in start order");
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                lapses = Arrays.copyOf(lapses, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            lapses[size] = lapsesAt;
+            longest = Math.max(longest, end - start);
+            size++;
+            return this;
+        }
+
+        public IntervalIndex build() {
+            return new IntervalIndex(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size),
+                    Arrays.copyOf(lapses, size), size, longest);
+        }
+    }
+}
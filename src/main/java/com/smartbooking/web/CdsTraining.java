@@ -0,0 +1,63 @@
+package com.smartbooking.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartbooking.service.AppBootstrap;
+import com.smartbooking.service.StartupTimings;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Scripted warm-up used to train the AppCDS archive ({@code mvn -Pappcds package}). It starts the web
+ * server, drives the common request path over HTTP (login, list resources, create and cancel a booking)
+ * and exits, so that the JVM dumps every class loaded along the way. Needs the database to be running.
+ */
+public class CdsTraining {
+    private static final int PORT = 18080;
+
+    public static void main(String[] args) throws Exception {
+        StartupTimings timings = new StartupTimings();
+        WebServer.start(AppBootstrap.initializeAsync(timings), timings, PORT);
+        HttpClient client = HttpClient.newHttpClient();
+        ObjectMapper mapper = new ObjectMapper();
+
+        while (send(client, "GET", "/api/health/ready", null, null).statusCode() != 200) {
+            Thread.sleep(50);
+        }
+        JsonNode user = mapper.readTree(send(client, "POST", "/api/auth/login",
+                "{\"username\":\"alice\",\"password\":\"password\"}", null).body());
+        String userId = user.get("id").asText();
+        JsonNode resources = mapper.readTree(send(client, "GET", "/api/resources", null, userId).body());
+        long resourceId = resources.get(0).get("id").asLong();
+
+        // Far enough ahead, and random, so that repeated training runs do not collide
+        LocalDateTime start = LocalDateTime.now().plusDays(ThreadLocalRandom.current().nextInt(60, 360))
+                .withHour(ThreadLocalRandom.current().nextInt(6, 20)).withMinute(0).withSecond(0).withNano(0);
+        HttpResponse<String> created = send(client, "POST", "/api/bookings", "{\"resourceId\":" + resourceId
+                + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(1) + "\"}", userId);
+        if (created.statusCode() == 200) {
+            long bookingId = mapper.readTree(created.body()).get("id").asLong();
+            send(client, "GET", "/api/bookings/my", null, userId);
+            send(client, "POST", "/api/bookings/" + bookingId + "/cancel?userId=" + userId, "", userId);
+        }
+        System.out.println("CDS training run finished: " + timings.summary());
+        System.exit(0);
+    }
+
+    private static HttpResponse<String> send(HttpClient client, String method, String path, String body,
+            String userId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .header("Content-Type", "application/json");
+        if (userId != null) {
+            request.header("X-User-Id", userId);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
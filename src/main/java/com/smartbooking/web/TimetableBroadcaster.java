@@ -0,0 +1,76 @@
+package com.smartbooking.web;
+
+import com.smartbooking.domain.OutboxEvent;
+import com.smartbooking.domain.OutboxEventType;
+import com.smartbooking.domain.Timeslot;
+import com.smartbooking.domain.User;
+import com.smartbooking.service.OutboxListener;
+import com.smartbooking.service.SlotReleaseListener;
+import io.javalin.http.sse.SseClient;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes released slots to every open stream and relayed notifications to the streams of their user.
+ */
+public class TimetableBroadcaster implements SlotReleaseListener, OutboxListener {
+    private final Map<SseClient, Long> clients = new ConcurrentHashMap<>();
+
+    public void subscribe(SseClient client) {
+        User user = client.ctx().attribute("user");
+        client.keepAlive();
+        client.onClose(() -> clients.remove(client));
+        clients.put(client, user != null ? user.getId() : 0L);
+    }
+
+    @Override
+    public void onSlotReleased(long resourceId, Timeslot timeslot) {
+        SlotReleasedEvent event = new SlotReleasedEvent(resourceId, timeslot.getStart(), timeslot.getEnd());
+        for (SseClient client : clients.keySet()) {
+            if (client.terminated()) {
+                clients.remove(client);
+            } else {
+                client.sendEvent("slot-released", event);
+            }
+        }
+    }
+
+    @Override
+    public void onOutboxEvent(OutboxEvent event) {
+        if (event.getType() != OutboxEventType.NOTIFICATION) {
+            return;
+        }
+        for (Map.Entry<SseClient, Long> entry : clients.entrySet()) {
+            SseClient client = entry.getKey();
+            if (client.terminated()) {
+                clients.remove(client);
+            } else if (entry.getValue() == event.getUserId()) {
+                client.sendEvent("notification", new NotificationEvent(event.getPayload(), event.getCreatedAt()));
+            }
+        }
+    }
+
+    public static class SlotReleasedEvent {
+        public final long resourceId;
+        public final LocalDateTime start;
+        public final LocalDateTime end;
+
+        SlotReleasedEvent(long resourceId, LocalDateTime start, LocalDateTime end) {
+            this.resourceId = resourceId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    public static class NotificationEvent {
+        public final String message;
+        public final LocalDateTime createdAt;
+
+        NotificationEvent(String message, LocalDateTime createdAt) {
+            this.message = message;
+            this.createdAt = createdAt;
+        }
+    }
+}
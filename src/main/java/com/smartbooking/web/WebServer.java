@@ -5,28 +5,47 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingSeries;
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.domain.RecurrenceFrequency;
+import com.smartbooking.domain.RecurrenceRule;
+import com.smartbooking.domain.ResourceType;
 import com.smartbooking.domain.Timeslot;
+import com.smartbooking.domain.TimetableSlot;
 import com.smartbooking.domain.Role;
+import com.smartbooking.domain.UsageGranularity;
 import com.smartbooking.domain.User;
 import com.smartbooking.service.AppBootstrap;
 import com.smartbooking.service.AppServices;
+import com.smartbooking.service.BookingRequest;
+import com.smartbooking.service.StartupTimings;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 import io.javalin.json.JavalinJackson;
 import io.javalin.http.ForbiddenResponse;
+import io.javalin.http.ServiceUnavailableResponse;
 import io.javalin.http.UnauthorizedResponse;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 public class WebServer {
 
-    private static AppServices services;
+    private static volatile AppServices services;
 
     public static void start(AppServices appServices, int port) {
-        services = appServices;
+        start(CompletableFuture.completedFuture(appServices), new StartupTimings(), port);
+    }
 
+    /**
+     * Starts listening before the services are ready. Until {@code appServices} completes, every API call
+     * except {@code /api/health/*} answers 503, so load balancers should poll {@code /api/health/ready}.
+     */
+    public static void start(CompletableFuture<AppServices> appServices, StartupTimings timings, int port) {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -41,14 +60,45 @@ public class WebServer {
             });
         }).start(port);
 
+        timings.mark("http");
+
+        TimetableBroadcaster broadcaster = new TimetableBroadcaster();
+        appServices.whenComplete((ready, error) -> {
+            if (error != null) {
+                // Never going to be ready; stop listening so the process can exit and be restarted
+                System.err.println("Startup failed, stopping web server: " + error.getMessage());
+                app.stop();
+                return;
+            }
+            ready.getBookingService().addSlotReleaseListener(broadcaster);
+            ready.getOutboxRelay().addListener(broadcaster);
+            services = ready;
+        });
+
+        app.get("/api/health/live", ctx -> ctx.result("OK"));
+        app.get("/api/health/ready", ctx -> {
+            ctx.status(services != null ? 200 : 503);
+            ctx.json(new ReadinessResponse(services != null, timings));
+        });
+
         // Security Filter
         app.before("/api/*", ctx -> {
             String path = ctx.path();
+            if (path.startsWith("/api/health/")) {
+                return;
+            }
+            if (services == null) {
+                throw new ServiceUnavailableResponse("Server is starting");
+            }
             if (path.equals("/api/auth/login") || path.equals("/api/auth/register")) {
                 return;
             }
 
             String userIdStr = ctx.header("X-User-Id");
+            if ((userIdStr == null || userIdStr.isBlank()) && path.equals("/api/bookings/stream")) {
+                // EventSource cannot send custom headers
+                userIdStr = ctx.queryParam("userId");
+            }
             if (userIdStr == null || userIdStr.isBlank()) {
                 throw new UnauthorizedResponse("Missing authentication header");
             }
@@ -75,12 +125,21 @@ public class WebServer {
         app.get("/api/bookings/my", WebServer::handleListMyBookings);
         app.get("/api/bookings/pending", WebServer::handleListPendingBookings);
         app.post("/api/bookings", WebServer::handleCreateBooking);
+        app.post("/api/bookings/batch", WebServer::handleCreateBookingBatch);
+        app.post("/api/bookings/series", WebServer::handleCreateSeries);
+        app.sse("/api/bookings/stream", broadcaster::subscribe);
+        app.post("/api/quotes", WebServer::handleQuotes);
+
+        app.post("/api/waitlist", WebServer::handleJoinWaitlist);
+        app.get("/api/waitlist/my", WebServer::handleListMyWaitlist);
 
         app.post("/api/bookings/{id}/approve", WebServer::handleApproveBooking);
         app.post("/api/bookings/{id}/reject", WebServer::handleRejectBooking);
         app.post("/api/bookings/{id}/pay", WebServer::handlePayBooking);
         app.post("/api/bookings/{id}/cancel", WebServer::handleCancelBooking);
 
+        app.get("/api/analytics/heatmap", WebServer::handleHeatmap);
+
         // Admin Actions
         app.post("/api/admin/bookings/{id}/update", ctx -> {
             checkAdmin(ctx);
@@ -91,6 +150,15 @@ public class WebServer {
             WebServer.handleDeleteBooking(ctx);
         });
 
+        app.get("/api/admin/metrics/locks", ctx -> {
+            checkAdmin(ctx);
+            ctx.json(services.getBookingService().getLockStats());
+        });
+        app.get("/api/admin/analytics/usage", ctx -> {
+            checkAdmin(ctx);
+            WebServer.handleUsageReport(ctx);
+        });
+
         // Secured Audit
         app.get("/api/audit", ctx -> {
             checkAdmin(ctx);
@@ -106,8 +174,8 @@ public class WebServer {
     }
 
     public static void main(String[] args) {
-        AppServices services = AppBootstrap.initialize();
-        start(services, 8080);
+        StartupTimings timings = new StartupTimings();
+        start(AppBootstrap.initializeAsync(timings), timings, 8080);
     }
 
     // --- Handlers ---
@@ -130,7 +198,13 @@ public class WebServer {
 
     private static void handleListMyBookings(Context ctx) {
         User user = ctx.attribute("user");
-        ctx.json(services.getBookingService().listUserBookings(user.getId()));
+        String fromStr = ctx.queryParam("from");
+        if (fromStr == null) {
+            // Live bookings only; archived ones all ended more than 180 days ago
+            ctx.json(services.getBookingService().listUserBookings(user.getId()));
+            return;
+        }
+        ctx.json(services.getBookingService().listUserBookings(user.getId(), LocalDateTime.parse(fromStr)));
     }
 
     private static void handleListPendingBookings(Context ctx) {
@@ -146,6 +220,49 @@ public class WebServer {
         ctx.json(booking);
     }
 
+    private static void handleCreateBookingBatch(Context ctx) {
+        User user = ctx.attribute("user");
+        CreateBookingRequest[] req = ctx.bodyAsClass(CreateBookingRequest[].class);
+        List<BookingRequest> requests = new ArrayList<>(req.length);
+        for (CreateBookingRequest item : req) {
+            requests.add(new BookingRequest(item.resourceId, new Timeslot(item.start, item.end)));
+        }
+        ctx.json(services.getBookingService().createBookings(user.getId(), requests));
+    }
+
+    private static void handleQuotes(Context ctx) {
+        CreateBookingRequest[] req = ctx.bodyAsClass(CreateBookingRequest[].class);
+        List<BookingRequest> requests = new ArrayList<>(req.length);
+        for (CreateBookingRequest item : req) {
+            requests.add(new BookingRequest(item.resourceId, new Timeslot(item.start, item.end)));
+        }
+        double[] prices = services.getQuoteService().quote(requests);
+        List<QuoteResponse> response = new ArrayList<>(req.length);
+        for (int i = 0; i < req.length; i++) {
+            response.add(new QuoteResponse(req[i], prices[i]));
+        }
+        ctx.json(response);
+    }
+
+    private static void handleCreateSeries(Context ctx) {
+        User user = ctx.attribute("user");
+        CreateSeriesRequest req = ctx.bodyAsClass(CreateSeriesRequest.class);
+        BookingSeries series = services.getBookingService().createSeries(user.getId(), req.resourceId,
+                new Timeslot(req.start, req.end), new RecurrenceRule(req.frequency, req.interval, req.until));
+        ctx.json(series);
+    }
+
+    private static void handleJoinWaitlist(Context ctx) {
+        User user = ctx.attribute("user");
+        CreateBookingRequest req = ctx.bodyAsClass(CreateBookingRequest.class);
+        ctx.json(services.getWaitlistService().join(user.getId(), req.resourceId, new Timeslot(req.start, req.end)));
+    }
+
+    private static void handleListMyWaitlist(Context ctx) {
+        User user = ctx.attribute("user");
+        ctx.json(services.getWaitlistService().listUserEntries(user.getId()));
+    }
+
     private static void handleApproveBooking(Context ctx) {
         long bookingId = Long.parseLong(ctx.pathParam("id"));
         User admin = ctx.attribute("user");
@@ -177,7 +294,41 @@ public class WebServer {
     }
 
     private static void handleListAuditLogs(Context ctx) {
-        ctx.json(services.getAuditService().listLogs());
+        String fromStr = ctx.queryParam("from");
+        String toStr = ctx.queryParam("to");
+        if (fromStr == null && toStr == null) {
+            ctx.json(services.getAuditService().listLogs());
+            return;
+        }
+        // Searches reaching back past the retention window also read the cold archive
+        ctx.json(services.getAuditService().searchLogs(
+                fromStr != null ? LocalDateTime.parse(fromStr) : null,
+                toStr != null ? LocalDateTime.parse(toStr) : null));
+    }
+
+    private static void handleUsageReport(Context ctx) {
+        // e.g. ?type=STUDY_ROOM_SMALL&granularity=DAY&from=2025-03-01T00:00&to=2025-04-01T00:00, or resourceId=
+        UsageGranularity granularity = UsageGranularity.valueOf(ctx.queryParam("granularity").toUpperCase());
+        LocalDateTime from = LocalDateTime.parse(ctx.queryParam("from"));
+        LocalDateTime to = LocalDateTime.parse(ctx.queryParam("to"));
+        String resourceIdStr = ctx.queryParam("resourceId");
+        if (resourceIdStr != null) {
+            ctx.json(services.getAnalyticsService().resourceUsage(Long.parseLong(resourceIdStr), granularity, from,
+                    to));
+        } else {
+            ResourceType type = ResourceType.valueOf(ctx.queryParam("type"));
+            ctx.json(services.getAnalyticsService().typeUsage(type, granularity, from, to));
+        }
+    }
+
+    private static void handleHeatmap(Context ctx) {
+        String typeStr = ctx.queryParam("type");
+        List<HeatmapResponse> response = new ArrayList<>();
+        for (ResourceType type : typeStr != null ? new ResourceType[] { ResourceType.valueOf(typeStr) }
+                : ResourceType.values()) {
+            response.add(new HeatmapResponse(type, services.getAnalyticsService().heatmap(type)));
+        }
+        ctx.json(response);
     }
 
     private static void handleListBookings(Context ctx) {
@@ -190,21 +341,25 @@ public class WebServer {
             LocalDateTime start = LocalDateTime.parse(startStr);
             LocalDateTime end = LocalDateTime.parse(endStr);
 
-            List<Booking> bookings = services.getBookingService().listBookingsForResource(resourceId, start, end);
+            List<TimetableSlot> slots = services.getBookingService().listBookingsForResource(resourceId, start, end);
 
-            // Data Privacy: Redact usernames for non-admin users
+            // Data Privacy: only admins see who holds other users' slots. Names come from the user cache.
             User currentUser = ctx.attribute("user");
-            if (currentUser.getRole() != Role.ADMIN) {
-                bookings = bookings.stream().map(b -> {
-                    if (b.getUserId() != currentUser.getId()) {
-                        return new Booking(b.getId(), b.getUserId(), "Occupied", b.getResourceId(),
-                                b.getStartTime(), b.getEndTime(), b.getPrice(), b.getStatus(), b.getCreatedAt());
-                    }
-                    return b;
-                }).collect(Collectors.toList());
+            List<TimetableSlotResponse> response = new ArrayList<>(slots.size());
+            for (TimetableSlot slot : slots) {
+                String username;
+                if (slot.getUserId() == currentUser.getId()) {
+                    username = currentUser.getUsername();
+                } else if (currentUser.getRole() == Role.ADMIN) {
+                    username = services.getUserRepository().findById(slot.getUserId())
+                            .map(User::getUsername).orElse(null);
+                } else {
+                    username = "Occupied";
+                }
+                response.add(new TimetableSlotResponse(slot, resourceId, username));
             }
 
-            ctx.json(bookings);
+            ctx.json(response);
         } else {
             ctx.status(501);
         }
@@ -240,6 +395,15 @@ public class WebServer {
         public LocalDateTime end;
     }
 
+    private static class CreateSeriesRequest {
+        public long resourceId;
+        public LocalDateTime start;
+        public LocalDateTime end;
+        public RecurrenceFrequency frequency;
+        public int interval = 1;
+        public LocalDate until;
+    }
+
     private static class PayRequest {
         public long userId;
         public String method;
@@ -249,4 +413,69 @@ public class WebServer {
         public LocalDateTime start;
         public LocalDateTime end;
     }
+
+    private static class TimetableSlotResponse {
+        public final long id;
+        public final long userId;
+        public final String username;
+        public final long resourceId;
+        public final LocalDateTime startTime;
+        public final LocalDateTime endTime;
+        public final BookingStatus status;
+
+        TimetableSlotResponse(TimetableSlot slot, long resourceId, String username) {
+            this.id = slot.getId();
+            this.userId = slot.getUserId();
+            this.username = username;
+            this.resourceId = resourceId;
+            this.startTime = slot.getStartTime();
+            this.endTime = slot.getEndTime();
+            this.status = slot.getStatus();
+        }
+    }
+
+    private static class QuoteResponse {
+        public final long resourceId;
+        public final LocalDateTime start;
+        public final LocalDateTime end;
+        public final double price;
+
+        QuoteResponse(CreateBookingRequest request, double price) {
+            this.resourceId = request.resourceId;
+            this.start = request.start;
+            this.end = request.end;
+            this.price = price;
+        }
+    }
+
+    private static class HeatmapResponse {
+        public final ResourceType type;
+        // Booked minutes by weekday (0 is Monday) and hour
+        public final int[][] minutes;
+        public final int maxMinutes;
+
+        HeatmapResponse(ResourceType type, int[][] minutes) {
+            this.type = type;
+            this.minutes = minutes;
+            int max = 0;
+            for (int[] day : minutes) {
+                for (int cell : day) {
+                    max = Math.max(max, cell);
+                }
+            }
+            this.maxMinutes = max;
+        }
+    }
+
+    private static class ReadinessResponse {
+        public final boolean ready;
+        public final Map<String, Long> milestonesMillis;
+        public final Map<String, Long> phasesMillis;
+
+        ReadinessResponse(boolean ready, StartupTimings timings) {
+            this.ready = ready;
+            this.milestonesMillis = timings.getMilestones();
+            this.phasesMillis = timings.getPhases();
+        }
+    }
 }
@@ -0,0 +1,130 @@
+-- Baseline: the schema previously created by DatabaseInitializer. Written to be safe on databases
+-- that were created before migrations existed, including ones with an unpartitioned bookings table.
+
+CREATE TABLE IF NOT EXISTS users (
+    id SERIAL PRIMARY KEY,
+    username TEXT UNIQUE NOT NULL,
+    password_hash TEXT NOT NULL,
+    role TEXT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS resources (
+    id SERIAL PRIMARY KEY,
+    name TEXT NOT NULL,
+    type TEXT NOT NULL,
+    base_price DOUBLE PRECISION NOT NULL,
+    pricing_policy TEXT NOT NULL,
+    cancellation_policy TEXT NOT NULL,
+    approval_policy TEXT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS booking_series (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    resource_id INTEGER NOT NULL,
+    frequency TEXT NOT NULL,
+    interval_count INTEGER NOT NULL,
+    until_date TEXT NOT NULL,
+    created_at TEXT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    FOREIGN KEY (resource_id) REFERENCES resources(id)
+);
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = 'bookings' AND relkind = 'r'
+               AND relnamespace = 'public'::regnamespace) THEN
+        ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+        ALTER INDEX IF EXISTS bookings_pkey RENAME TO bookings_unpartitioned_pkey;
+        DROP INDEX IF EXISTS idx_bookings_expires_at;
+    END IF;
+END $$;
+
+-- Range-partitioned by month on start_time; see BookingPartitionManager. The primary key must include
+-- the partition key, so nothing can reference bookings(id) with a foreign key.
+CREATE TABLE IF NOT EXISTS bookings (
+    id SERIAL,
+    user_id INTEGER NOT NULL,
+    resource_id INTEGER NOT NULL,
+    start_time TEXT NOT NULL,
+    end_time TEXT NOT NULL,
+    price DOUBLE PRECISION NOT NULL,
+    status TEXT NOT NULL,
+    created_at TEXT NOT NULL,
+    expires_at TEXT,
+    series_id INTEGER REFERENCES booking_series(id),
+    PRIMARY KEY (id, start_time),
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    FOREIGN KEY (resource_id) REFERENCES resources(id)
+) PARTITION BY RANGE (start_time);
+
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_expires_at ON bookings (expires_at) WHERE expires_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_bookings_resource_start ON bookings (resource_id, start_time);
+
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    resource_id INTEGER NOT NULL,
+    start_time TEXT NOT NULL,
+    end_time TEXT NOT NULL,
+    status TEXT NOT NULL,
+    booking_id INTEGER,
+    created_at TEXT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    FOREIGN KEY (resource_id) REFERENCES resources(id)
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    id SERIAL PRIMARY KEY,
+    booking_id INTEGER NOT NULL,
+    amount DOUBLE PRECISION NOT NULL,
+    method TEXT NOT NULL,
+    status TEXT NOT NULL,
+    created_at TEXT NOT NULL
+);
+ALTER TABLE payments DROP CONSTRAINT IF EXISTS payments_booking_id_fkey;
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    message TEXT NOT NULL,
+    created_at TEXT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE IF NOT EXISTS audit_log (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    action TEXT NOT NULL,
+    details TEXT NOT NULL,
+    created_at TEXT NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type TEXT NOT NULL,
+    user_id INTEGER NOT NULL,
+    action TEXT,
+    payload TEXT NOT NULL,
+    created_at TEXT NOT NULL
+);
+
+-- Rows land in the default partition; BookingPartitionManager moves them into monthly ones.
+DO $$
+BEGIN
+    IF to_regclass('bookings_unpartitioned') IS NOT NULL THEN
+        ALTER TABLE bookings_unpartitioned
+            ADD COLUMN IF NOT EXISTS expires_at TEXT,
+            ADD COLUMN IF NOT EXISTS series_id INTEGER;
+        INSERT INTO bookings (id, user_id, resource_id, start_time, end_time, price, status,
+                              created_at, expires_at, series_id)
+        SELECT id, user_id, resource_id, start_time, end_time, price, status,
+               created_at, expires_at, series_id
+        FROM bookings_unpartitioned;
+        PERFORM setval(pg_get_serial_sequence('bookings', 'id'), (SELECT COALESCE(MAX(id), 1) FROM bookings));
+        DROP TABLE bookings_unpartitioned;
+    END IF;
+END $$;
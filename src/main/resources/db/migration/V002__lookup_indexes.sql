@@ -0,0 +1,7 @@
+-- migrate:no-transaction
+-- Built CONCURRENTLY so that rolling this out does not block writers on a live database.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_user_created ON notifications (user_id, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_audit_log_created_at ON audit_log (created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_waitlist_entries_waiting ON waitlist_entries (resource_id, start_time)
+    WHERE status = 'WAITING';
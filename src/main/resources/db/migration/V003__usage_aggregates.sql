@@ -0,0 +1,56 @@
+-- Usage aggregates per resource and per resource type in hour, day and week buckets, kept up to date by
+-- UsageAggregator. Bucket starts use the same text form as LocalDateTime.toString(), e.g. 2025-03-10T09:00.
+
+CREATE TABLE IF NOT EXISTS usage_aggregates (
+    scope TEXT NOT NULL,
+    scope_key TEXT NOT NULL,
+    granularity TEXT NOT NULL,
+    bucket_start TEXT NOT NULL,
+    booked_minutes BIGINT NOT NULL DEFAULT 0,
+    bookings INTEGER NOT NULL DEFAULT 0,
+    revenue DOUBLE PRECISION NOT NULL DEFAULT 0,
+    PRIMARY KEY (scope, scope_key, granularity, bucket_start)
+);
+
+-- Backfill from the bookings and payments recorded so far. Paid bookings occupy their slot until they are
+-- cancelled or refunded; booked minutes are split across buckets, bookings and revenue go to the start bucket.
+CREATE TEMPORARY TABLE usage_backfill ON COMMIT DROP AS
+WITH units (granularity, unit) AS (
+    VALUES ('HOUR', 'hour'), ('DAY', 'day'), ('WEEK', 'week')
+),
+occupied AS (
+    SELECT b.resource_id, r.type, b.start_time::timestamp AS start_at, b.end_time::timestamp AS end_at
+    FROM bookings b JOIN resources r ON r.id = b.resource_id
+    WHERE b.status IN ('PAID', 'ACTIVE', 'COMPLETED')
+),
+pieces AS (
+    SELECT o.resource_id, o.type, u.granularity, t AS bucket,
+           EXTRACT(EPOCH FROM LEAST(o.end_at, t + ('1 ' || u.unit)::interval) - GREATEST(o.start_at, t)) / 60
+               AS minutes,
+           CASE WHEN t = date_trunc(u.unit, o.start_at) THEN 1 ELSE 0 END AS bookings,
+           0::double precision AS revenue
+    FROM occupied o
+    CROSS JOIN units u
+    CROSS JOIN LATERAL generate_series(date_trunc(u.unit, o.start_at), o.end_at - interval '1 second',
+                                       ('1 ' || u.unit)::interval) AS t
+    UNION ALL
+    SELECT b.resource_id, r.type, u.granularity, date_trunc(u.unit, b.start_time::timestamp), 0, 0,
+           CASE WHEN p.status = 'REFUNDED' THEN -p.amount ELSE p.amount END
+    FROM payments p
+    JOIN bookings b ON b.id = p.booking_id
+    JOIN resources r ON r.id = b.resource_id
+    CROSS JOIN units u
+)
+SELECT resource_id, type, granularity, to_char(bucket, 'YYYY-MM-DD"T"HH24:MI') AS bucket_start,
+       minutes, bookings, revenue
+FROM pieces;
+
+INSERT INTO usage_aggregates (scope, scope_key, granularity, bucket_start, booked_minutes, bookings, revenue)
+SELECT 'RESOURCE', resource_id::text, granularity, bucket_start, round(sum(minutes)), sum(bookings), sum(revenue)
+FROM usage_backfill
+GROUP BY resource_id, granularity, bucket_start
+UNION ALL
+SELECT 'TYPE', type, granularity, bucket_start, round(sum(minutes)), sum(bookings), sum(revenue)
+FROM usage_backfill
+GROUP BY type, granularity, bucket_start
+ON CONFLICT DO NOTHING;
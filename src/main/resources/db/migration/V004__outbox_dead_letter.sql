@@ -0,0 +1,13 @@
+-- Outbox events the relay gave up on after repeated failures, kept with the last error for inspection.
+-- Requeue one by inserting it back into outbox and deleting it here.
+
+CREATE TABLE IF NOT EXISTS outbox_dead_letter (
+    id BIGINT PRIMARY KEY,
+    event_type TEXT NOT NULL,
+    user_id INTEGER NOT NULL,
+    action TEXT,
+    payload TEXT NOT NULL,
+    created_at TEXT NOT NULL,
+    failed_at TEXT NOT NULL,
+    error TEXT NOT NULL
+);
@@ -0,0 +1,78 @@
+package com.smartbooking;
+
+import com.smartbooking.domain.AuditLog;
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.persistence.ArchiveStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ArchiveStoreTests {
+    private static final LocalDateTime JAN = LocalDateTime.of(2024, 1, 10, 9, 0);
+    private static final LocalDateTime FEB = LocalDateTime.of(2024, 2, 10, 9, 0);
+
+    @Test
+    void archivedBookingsAreFoundByUserAfterReopening() throws Exception {
+        Path directory = Files.createTempDirectory("archive");
+        ArchiveStore store = new ArchiveStore(directory);
+        assertNull(store.auditHorizon());
+        store.appendBookings(List.of(booking(1, 7, JAN), booking(2, 8, FEB)));
+        store.appendBookings(List.of(booking(3, 7, FEB)));
+
+        ArchiveStore reopened = new ArchiveStore(directory);
+        List<Booking> bookings = reopened.findBookingsByUser(7);
+
+        assertEquals(2, bookings.size());
+        assertEquals(BookingStatus.COMPLETED, bookings.get(0).getStatus());
+        assertEquals(0, reopened.findBookingsByUser(9).size());
+    }
+
+    @Test
+    void bookingSearchFromABoundSkipsOlderSegments() throws Exception {
+        ArchiveStore store = new ArchiveStore(Files.createTempDirectory("archive"));
+        assertNull(store.bookingHorizon());
+        store.appendBookings(List.of(booking(1, 7, JAN), booking(2, 7, FEB)));
+
+        assertEquals(FEB, store.bookingHorizon());
+        assertEquals(1, store.findBookingsByUser(7, FEB).size());
+        assertEquals(2, store.findBookingsByUser(7, JAN).size());
+        assertEquals(0, store.findBookingsByUser(7, FEB.plusMinutes(1)).size());
+    }
+
+    @Test
+    void storesSharingADirectorySeeEachOthersAppends() throws Exception {
+        Path directory = Files.createTempDirectory("archive");
+        ArchiveStore writer = new ArchiveStore(directory);
+        ArchiveStore reader = new ArchiveStore(directory);
+        writer.appendBookings(List.of(booking(1, 7, JAN)));
+        reader.appendBookings(List.of(booking(2, 7, FEB)));
+        writer.appendBookings(List.of(booking(3, 7, FEB)));
+
+        assertEquals(3, reader.findBookingsByUser(7).size());
+        assertEquals(3, writer.findBookingsByUser(7).size());
+    }
+
+    @Test
+    void auditSearchOnlyReturnsEntriesInRange() throws Exception {
+        ArchiveStore store = new ArchiveStore(Files.createTempDirectory("archive"));
+        store.appendAuditLogs(List.of(
+                new AuditLog(1, 7, "BOOKING_PAID", "Booking 1 paid", JAN),
+                new AuditLog(2, 7, "BOOKING_PAID", "Booking 2 paid", FEB)));
+
+        assertEquals(FEB, store.auditHorizon());
+        assertEquals(1, store.findAuditLogs(FEB.minusDays(1), null).size());
+        assertEquals(2, store.findAuditLogs(null, FEB.plusDays(1)).size());
+        assertEquals(0, store.findAuditLogs(FEB.plusDays(1), null).size());
+    }
+
+    private static Booking booking(long id, long userId, LocalDateTime start) {
+        return new Booking(id, userId, 1, start, start.plusHours(1), 10.0, BookingStatus.COMPLETED, start.minusDays(1));
+    }
+}
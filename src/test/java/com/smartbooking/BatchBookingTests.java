@@ -0,0 +1,145 @@
+package com.smartbooking;
+
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingSeries;
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.domain.RecurrenceFrequency;
+import com.smartbooking.domain.RecurrenceRule;
+import com.smartbooking.domain.Resource;
+import com.smartbooking.domain.ResourceType;
+import com.smartbooking.domain.Role;
+import com.smartbooking.domain.Timeslot;
+import com.smartbooking.domain.state.BookingStateFactory;
+import com.smartbooking.persistence.AuditLogRepository;
+import com.smartbooking.persistence.BookingRepository;
+import com.smartbooking.persistence.Database;
+import com.smartbooking.persistence.DatabaseInitializer;
+import com.smartbooking.persistence.NotificationRepository;
+import com.smartbooking.persistence.PaymentRepository;
+import com.smartbooking.persistence.ResourceRepository;
+import com.smartbooking.persistence.UserRepository;
+import com.smartbooking.service.AuditService;
+import com.smartbooking.service.BookingFactory;
+import com.smartbooking.service.BookingRequest;
+import com.smartbooking.service.BookingService;
+import com.smartbooking.service.NotificationService;
+import com.smartbooking.service.PaymentService;
+import com.smartbooking.service.PolicyFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Needs PostgreSQL: run with {@code -Dsmartbooking.test.db.url=jdbc:postgresql://localhost:5432/smart_booking}
+ * (and {@code smartbooking.test.db.user} / {@code .password} if not postgres/postgres). Skipped otherwise.
+ */
+public class BatchBookingTests {
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    private Database database;
+    private BookingService bookingService;
+    private long userId;
+    private long autoRoom;
+    private long approvalRoom;
+    private LocalDateTime nine;
+
+    @BeforeEach
+    void setup() {
+        String url = System.getProperty("smartbooking.test.db.url");
+        assumeTrue(url != null && !url.isBlank(), "smartbooking.test.db.url not set");
+        database = new Database(url, System.getProperty("smartbooking.test.db.user", "postgres"),
+                System.getProperty("smartbooking.test.db.password", "postgres"));
+        new DatabaseInitializer().initialize(database);
+        ResourceRepository resourceRepository = new ResourceRepository(database);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        autoRoom = resourceRepository.create(new Resource(0, "Batch Room " + run, ResourceType.STUDY_ROOM_SMALL,
+                10.0, "DEFAULT", "FLEXIBLE", "AUTO")).getId();
+        approvalRoom = resourceRepository.create(new Resource(0, "Batch Studio " + run, ResourceType.STUDIO,
+                20.0, "DEFAULT", "FLEXIBLE", "ADMIN_REQUIRED")).getId();
+        userId = new UserRepository(database).create("batch-" + run, "-", Role.CUSTOMER).getId();
+        bookingService = new BookingService(
+                new BookingRepository(database),
+                resourceRepository,
+                new PolicyFactory(),
+                new BookingFactory(),
+                new BookingStateFactory(),
+                new NotificationService(new NotificationRepository(database)),
+                new PaymentService(new PaymentRepository(database)),
+                new AuditService(new AuditLogRepository(database)));
+        bookingService.addObserver((booking, oldStatus, newStatus) ->
+                events.add(booking.getId() + ":" + oldStatus + "->" + newStatus));
+        // Far enough ahead that repeated runs never meet existing bookings
+        nine = LocalDateTime.now().plusDays(ThreadLocalRandom.current().nextInt(400, 4000))
+                .withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        if (database == null) {
+            return;
+        }
+        try (Connection connection = database.getConnection()) {
+            for (String sql : new String[] {
+                    "DELETE FROM bookings WHERE user_id = ?",
+                    "DELETE FROM booking_series WHERE user_id = ?",
+                    "DELETE FROM notifications WHERE user_id = ?",
+                    "DELETE FROM audit_log WHERE user_id = ?",
+                    "DELETE FROM users WHERE id = ?" }) {
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setLong(1, userId);
+                    stmt.executeUpdate();
+                }
+            }
+            try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM resources WHERE id IN (?, ?)")) {
+                stmt.setLong(1, autoRoom);
+                stmt.setLong(2, approvalRoom);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    void autoApprovedBatchBookingsNotifyObserversLikeSingleOnes() {
+        List<Booking> saved = bookingService.createBookings(userId, List.of(
+                new BookingRequest(autoRoom, new Timeslot(nine, nine.plusHours(1))),
+                new BookingRequest(approvalRoom, new Timeslot(nine, nine.plusHours(1))),
+                new BookingRequest(autoRoom, new Timeslot(nine.plusHours(2), nine.plusHours(3)))));
+
+        List<String> expected = new ArrayList<>();
+        for (Booking booking : saved) {
+            if (booking.getResourceId() == autoRoom) {
+                assertEquals(BookingStatus.APPROVED, booking.getStatus());
+                expected.add(booking.getId() + ":REQUESTED->APPROVED");
+            } else {
+                assertEquals(BookingStatus.REQUESTED, booking.getStatus());
+            }
+        }
+        assertEquals(3, saved.size());
+        assertEquals(expected, events);
+    }
+
+    @Test
+    void autoApprovedSeriesNotifiesObserversForEveryOccurrence() {
+        BookingSeries series = bookingService.createSeries(userId, autoRoom, new Timeslot(nine, nine.plusHours(1)),
+                new RecurrenceRule(RecurrenceFrequency.DAILY, 1, nine.toLocalDate().plusDays(2)));
+
+        assertEquals(3, series.getOccurrences().size());
+        for (Booking booking : series.getOccurrences()) {
+            assertTrue(events.contains(booking.getId() + ":REQUESTED->APPROVED"), events.toString());
+        }
+        assertEquals(3, events.size());
+    }
+}
@@ -0,0 +1,42 @@
+package com.smartbooking;
+
+import com.smartbooking.persistence.ChangeMessage;
+import com.smartbooking.persistence.LocalChangeChannel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChangeChannelTests {
+    @Test
+    void messagesRoundTripThroughTheirCompactEncoding() {
+        ChangeMessage message = ChangeMessage.parse(new ChangeMessage(ChangeMessage.BOOKING, 42).encode());
+
+        assertEquals("b:42", message.encode());
+        assertEquals(ChangeMessage.BOOKING, message.getEntity());
+        assertEquals(42, message.getId());
+        assertTrue(ChangeMessage.parse("*").affects(ChangeMessage.USER));
+        assertFalse(message.affects(ChangeMessage.RESOURCE));
+    }
+
+    @Test
+    void localChannelDeliversToEverySubscriber() {
+        LocalChangeChannel channel = new LocalChangeChannel();
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        channel.subscribe(message -> first.add(message.encode()));
+        channel.subscribe(message -> {
+            throw new IllegalStateException("broken listener");
+        });
+        channel.subscribe(message -> second.add(message.encode()));
+
+        channel.publish(new ChangeMessage(ChangeMessage.RESOURCE, 7));
+
+        assertEquals(List.of("r:7"), first);
+        assertEquals(List.of("r:7"), second);
+    }
+}
@@ -0,0 +1,37 @@
+package com.smartbooking;
+
+import com.smartbooking.util.EpochMinutes;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EpochMinutesTests {
+    @Test
+    void roundTripsWholeMinutesAndTruncatesSeconds() {
+        LocalDateTime nine = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+        assertEquals(nine, EpochMinutes.toLocalDateTime(EpochMinutes.of(nine)));
+        assertEquals(EpochMinutes.of(nine), EpochMinutes.of(nine.plusSeconds(59)));
+        assertEquals(0, EpochMinutes.of(LocalDateTime.of(1970, 1, 1, 0, 0)));
+        assertEquals(-1, EpochMinutes.of(LocalDateTime.of(1969, 12, 31, 23, 59, 30)));
+    }
+
+    @Test
+    void parsesStoredTimestampsLikeLocalDateTime() {
+        for (String text : new String[] { "2025-03-10T09:00", "2024-02-29T23:59", "2000-01-01T00:00",
+                "2099-12-31T12:30:45", "2025-03-10T09:15:00.123456" }) {
+            assertEquals(EpochMinutes.of(LocalDateTime.parse(text)), EpochMinutes.parse(text), text);
+        }
+    }
+
+    @Test
+    void rejectsWhatLocalDateTimeRejects() {
+        assertThrows(DateTimeParseException.class, () -> EpochMinutes.parse("2025-02-29T09:00"));
+        assertThrows(DateTimeParseException.class, () -> EpochMinutes.parse("2025-03-10T24:00"));
+        assertThrows(DateTimeParseException.class, () -> EpochMinutes.parse("2025-03-10 09:00"));
+    }
+}
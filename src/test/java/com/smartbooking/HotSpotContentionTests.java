@@ -0,0 +1,57 @@
+package com.smartbooking;
+
+import com.smartbooking.loadtest.HotSpotScenario;
+import com.smartbooking.persistence.Database;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Needs PostgreSQL: run with {@code -Dsmartbooking.test.db.url=jdbc:postgresql://localhost:5432/smart_booking}
+ * (and {@code smartbooking.test.db.user} / {@code .password} if not postgres/postgres). Skipped otherwise.
+ */
+public class HotSpotContentionTests {
+    private static final int USERS = 64;
+
+    private HotSpotScenario scenario;
+
+    @BeforeEach
+    void setup() {
+        String url = System.getProperty("smartbooking.test.db.url");
+        assumeTrue(url != null && !url.isBlank(), "smartbooking.test.db.url not set");
+        scenario = HotSpotScenario.open(new Database(url,
+                System.getProperty("smartbooking.test.db.user", "postgres"),
+                System.getProperty("smartbooking.test.db.password", "postgres")), USERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scenario != null) {
+            scenario.close();
+        }
+    }
+
+    @Test
+    void identicalSlotRaceHasExactlyOneWinnerPerRound() throws Exception {
+        HotSpotScenario.Result result = scenario.run(5, false);
+
+        assertEquals(5, result.bookedCount());
+        assertEquals(5 * (USERS - 1), result.conflictCount());
+        assertEquals(0, result.errorCount());
+        assertEquals(0, scenario.doubleBookings());
+    }
+
+    @Test
+    void overlappingSlotRaceNeverDoubleBooks() throws Exception {
+        HotSpotScenario.Result result = scenario.run(5, true);
+
+        assertTrue(result.bookedCount() >= 5);
+        assertEquals(5L * USERS, result.bookedCount() + result.conflictCount());
+        assertEquals(0, result.errorCount());
+        assertEquals(0, scenario.doubleBookings());
+    }
+}
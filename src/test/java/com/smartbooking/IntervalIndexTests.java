@@ -0,0 +1,58 @@
+package com.smartbooking;
+
+import com.smartbooking.util.EpochMinutes;
+import com.smartbooking.util.IntervalIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntervalIndexTests {
+    private static final int NINE = EpochMinutes.of(LocalDateTime.of(2030, 1, 7, 9, 0));
+
+    @Test
+    void overlapsOnlyIntersectingIntervals() {
+        IntervalIndex index = new IntervalIndex.Builder()
+                .add(NINE - 240, NINE + 60, IntervalIndex.NEVER)
+                .add(NINE + 120, NINE + 180, IntervalIndex.NEVER)
+                .build();
+
+        assertTrue(index.overlaps(NINE, NINE + 30, 0));
+        assertTrue(index.overlaps(NINE + 90, NINE + 150, 0));
+        // Touching ends are not a conflict
+        assertFalse(index.overlaps(NINE + 60, NINE + 120, 0));
+        assertFalse(index.overlaps(NINE + 180, NINE + 240, 0));
+        assertFalse(index.overlaps(NINE - 300, NINE - 240, 0));
+    }
+
+    @Test
+    void longIntervalIsFoundBehindShortOnes() {
+        IntervalIndex index = new IntervalIndex.Builder()
+                .add(NINE, NINE + 600, IntervalIndex.NEVER)
+                .add(NINE + 10, NINE + 20, IntervalIndex.NEVER)
+                .add(NINE + 30, NINE + 40, IntervalIndex.NEVER)
+                .build();
+
+        assertTrue(index.overlaps(NINE + 500, NINE + 510, 0));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void lapsedHoldsNoLongerConflict() {
+        IntervalIndex index = new IntervalIndex.Builder().add(NINE, NINE + 60, NINE - 30).build();
+
+        assertTrue(index.overlaps(NINE, NINE + 60, NINE - 31));
+        assertFalse(index.overlaps(NINE, NINE + 60, NINE - 30));
+    }
+
+    @Test
+    void intervalsMustArriveInStartOrder() {
+        IntervalIndex.Builder builder = new IntervalIndex.Builder().add(NINE, NINE + 60, IntervalIndex.NEVER);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(NINE - 60, NINE, IntervalIndex.NEVER));
+    }
+}
@@ -0,0 +1,44 @@
+package com.smartbooking;
+
+import com.smartbooking.loadtest.LatencyHistogram;
+import com.smartbooking.loadtest.WorkloadMix;
+import com.smartbooking.loadtest.WorkloadMix.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadTestModelTests {
+    @Test
+    void histogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000, histogram.max());
+        assertEquals(50_000, histogram.percentile(50), 50_000 * 0.02);
+        assertEquals(99_000, histogram.percentile(99), 99_000 * 0.02);
+        assertEquals(100_000, histogram.percentile(100));
+    }
+
+    @Test
+    void mixDrawsOperationsInProportionToTheirWeights() {
+        WorkloadMix mix = WorkloadMix.parse("browse=3, book=1");
+        Map<Operation, Integer> drawn = new EnumMap<>(Operation.class);
+        Random random = new Random(42);
+        for (int i = 0; i < 40_000; i++) {
+            drawn.merge(mix.next(random), 1, Integer::sum);
+        }
+
+        assertEquals(2, drawn.size());
+        assertTrue(Math.abs(drawn.get(Operation.BROWSE) - 30_000) < 600);
+        assertThrows(IllegalArgumentException.class, () -> WorkloadMix.parse("browse=0"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.smartbooking;
+
+import com.smartbooking.persistence.MigrationScript;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MigrationScriptTests {
+    @Test
+    void statementsAreSplitOutsideQuotesAndDollarBodies() {
+        MigrationScript script = MigrationScript.parse("V003__add_flags.sql", """
+                -- adds a flag; with a comment
+                ALTER TABLE users ADD COLUMN flag TEXT DEFAULT 'a;b';
+                DO $$
+                BEGIN
+                    PERFORM 1;
+                END $$;
+                """);
+
+        List<String> statements = script.statements();
+
+        assertEquals(3, script.getVersion());
+        assertEquals("add flags", script.getDescription());
+        assertTrue(script.isTransactional());
+        assertEquals(2, statements.size());
+        assertEquals("ALTER TABLE users ADD COLUMN flag TEXT DEFAULT 'a;b'", statements.get(0));
+        assertTrue(statements.get(1).startsWith("DO $$"));
+    }
+
+    @Test
+    void checksumIgnoresLineEndingsAndMarkerDisablesTransaction() {
+        MigrationScript unix = MigrationScript.parse("V002__idx.sql",
+                "-- migrate:no-transaction\nCREATE INDEX i ON t (c);\n");
+        MigrationScript windows = MigrationScript.parse("V002__idx.sql",
+                "-- migrate:no-transaction\r\nCREATE INDEX i ON t (c);\r\n");
+
+        assertEquals(unix.getChecksum(), windows.getChecksum());
+        assertFalse(unix.isTransactional());
+        assertThrows(IllegalArgumentException.class, () -> MigrationScript.parse("baseline.sql", ""));
+    }
+
+    @Test
+    void bundledMigrationsLoadFromTheClasspath() {
+        MigrationScript baseline = MigrationScript.load("db/migration", "V001__baseline.sql");
+
+        assertTrue(baseline.isTransactional());
+        assertTrue(baseline.statements().size() > 10);
+        assertFalse(MigrationScript.load("db/migration", "V002__lookup_indexes.sql").isTransactional());
+        assertEquals(1, MigrationScript.load("db/migration", "V005__check_booking_durations.sql").statements().size());
+    }
+}
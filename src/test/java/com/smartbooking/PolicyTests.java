@@ -4,6 +4,7 @@ import com.smartbooking.domain.Resource;
 import com.smartbooking.domain.ResourceType;
 import com.smartbooking.domain.Timeslot;
 import com.smartbooking.domain.policy.*;
+import com.smartbooking.service.DemandModel;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
@@ -34,6 +35,27 @@ public class PolicyTests {
         assertEquals(11.5, price, 0.01);
     }
 
+    @Test
+    void surgePricingFollowsDemandWithinBounds() {
+        DemandModel demand = new DemandModel(null, null);
+        SurgePricingPolicy policy = new SurgePricingPolicy(demand, 0.5, 1.0, 1.0, 1.5);
+        Resource resource = new Resource(1, "Studio", ResourceType.STUDIO, 10.0, "SURGE", "FLEXIBLE", "AUTO");
+        LocalDateTime evening = LocalDateTime.of(2025, 3, 12, 19, 0);
+        Timeslot slot = new Timeslot(evening, evening.plusHours(1));
+
+        assertEquals(10.0, policy.calculatePrice(resource, slot, 10.0), 0.01);
+        // Three of four studios paid for 19:00-20:00 and one more requested
+        demand.addOccupancy(ResourceType.STUDIO, evening, evening.plusHours(1), 0.75);
+        demand.addRequest(ResourceType.STUDIO, evening, 0.25);
+        // One week of bookings counts as 1 - e^-0.5 of the same bookings repeated every week
+        assertEquals(0.75 * (1 - Math.exp(-0.5)), demand.demand(ResourceType.STUDIO, evening), 0.001);
+        assertEquals(0.0, demand.demand(ResourceType.STUDIO, evening.plusHours(1)), 0.001);
+
+        assertEquals(1.0, policy.multiplier(0.2), 0.001);
+        assertEquals(1.25, policy.multiplier(0.75), 0.001);
+        assertEquals(1.5, policy.multiplier(3.0), 0.001);
+    }
+
     @Test
     void flexibleCancellationRefundsByHours() {
         CancellationPolicy policy = new FlexibleCancellationPolicy();
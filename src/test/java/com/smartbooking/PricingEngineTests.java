@@ -0,0 +1,70 @@
+package com.smartbooking;
+
+import com.smartbooking.domain.Resource;
+import com.smartbooking.domain.ResourceType;
+import com.smartbooking.domain.Timeslot;
+import com.smartbooking.service.PolicyFactory;
+import com.smartbooking.service.PricingEngine;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PricingEngineTests {
+    private final PricingEngine engine = new PricingEngine(new PolicyFactory());
+
+    @Test
+    void peakRateOnlyAppliesToThePeakPartOfABooking() {
+        Resource room = new Resource(1, "Room", ResourceType.STUDY_ROOM_SMALL, 10.0, "PEAK_HOURS", "FLEXIBLE", "AUTO");
+        LocalDateTime wednesday = LocalDateTime.of(2025, 3, 12, 17, 0);
+
+        // 17-18 and 22-23 off-peak, 18-22 at 1.2x
+        assertEquals(68.0, engine.price(room, new Timeslot(wednesday, wednesday.withHour(23))), 0.001);
+        assertEquals(12.0, engine.price(room, new Timeslot(wednesday.withHour(19), wednesday.withHour(20))), 0.001);
+        assertEquals(5.0, engine.price(room, new Timeslot(wednesday.withHour(17).withMinute(30),
+                wednesday.withHour(18))), 0.001);
+    }
+
+    @Test
+    void bookingsAcrossTheWeekEndAndLongerThanAWeekArePricedPerMinute() {
+        Resource room = new Resource(2, "Room", ResourceType.STUDY_ROOM_LARGE, 10.0, "WEEKEND", "FLEXIBLE", "AUTO");
+        LocalDateTime sunday = LocalDateTime.of(2025, 3, 16, 23, 0);
+
+        assertEquals(21.5, engine.price(room, new Timeslot(sunday, sunday.plusHours(2))), 0.001);
+        // Two full weeks (48h of weekend each) plus the same two hours
+        double week = 120 * 10.0 + 48 * 11.5;
+        assertEquals(2 * week + 21.5, engine.price(room, new Timeslot(sunday, sunday.plusDays(14).plusHours(2))),
+                0.001);
+    }
+
+    @Test
+    void changedPolicyKeyRecompilesTheTable() {
+        LocalDateTime evening = LocalDateTime.of(2025, 3, 12, 19, 0);
+        Timeslot slot = new Timeslot(evening, evening.plusHours(1));
+
+        assertEquals(12.0, engine.price(new Resource(3, "Room", ResourceType.STUDIO, 10.0, "PEAK_HOURS", "FLEXIBLE",
+                "AUTO"), slot), 0.001);
+        assertEquals(10.0, engine.price(new Resource(3, "Room", ResourceType.STUDIO, 10.0, "DEFAULT", "FLEXIBLE",
+                "AUTO"), slot), 0.001);
+    }
+
+    @Test
+    void batchPricesMatchSinglePrices() {
+        Resource room = new Resource(4, "Room", ResourceType.MUSIC_ROOM, 8.0, "PEAK_WEEKEND", "FLEXIBLE", "AUTO");
+        LocalDateTime friday = LocalDateTime.of(2025, 3, 14, 16, 0);
+        List<Timeslot> week = List.of(
+                new Timeslot(friday, friday.plusHours(1)),
+                new Timeslot(friday.plusHours(3), friday.plusHours(4)),
+                new Timeslot(friday.plusDays(1).plusHours(3), friday.plusDays(1).plusHours(5)));
+
+        double[] prices = engine.prices(room, week);
+
+        assertEquals(3, prices.length);
+        for (int i = 0; i < prices.length; i++) {
+            assertEquals(engine.price(room, week.get(i)), prices[i], 0.0);
+        }
+        assertEquals(8.0 * 1.2 * 1.15 * 2, prices[2], 0.001);
+    }
+}
@@ -0,0 +1,35 @@
+package com.smartbooking;
+
+import com.smartbooking.domain.RecurrenceFrequency;
+import com.smartbooking.domain.RecurrenceRule;
+import com.smartbooking.domain.Timeslot;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecurrenceTests {
+    private static final LocalDateTime TUESDAY = LocalDateTime.of(2030, 1, 1, 14, 0);
+
+    @Test
+    void weeklySeriesExpandsUntilEndDateInclusive() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.WEEKLY, 1, TUESDAY.toLocalDate().plusWeeks(14));
+        List<Timeslot> occurrences = rule.expand(new Timeslot(TUESDAY, TUESDAY.plusHours(2)));
+
+        assertEquals(15, occurrences.size());
+        assertTrue(occurrences.stream().allMatch(o -> o.getStart().getDayOfWeek() == DayOfWeek.TUESDAY));
+        assertEquals(TUESDAY.plusWeeks(14).plusHours(2), occurrences.get(14).getEnd());
+    }
+
+    @Test
+    void selfOverlappingSeriesIsRejected() {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceFrequency.DAILY, 1, TUESDAY.toLocalDate().plusDays(3));
+        assertThrows(IllegalArgumentException.class,
+                () -> rule.expand(new Timeslot(TUESDAY, TUESDAY.plusHours(30))));
+    }
+}
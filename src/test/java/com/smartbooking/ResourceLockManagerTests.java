@@ -0,0 +1,79 @@
+package com.smartbooking;
+
+import com.smartbooking.service.ResourceLockManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceLockManagerTests {
+    // With four stripes, small ids land on stripe id % 4
+    private static final int STRIPES = 4;
+
+    @Test
+    void idsSharingAStripeLockItOnce() {
+        ResourceLockManager locks = new ResourceLockManager(STRIPES);
+
+        assertEquals("done", locks.withLocks(List.of(1L, 5L, 9L, 5L), () -> "done"));
+        assertEquals(1, locks.stats().getAcquisitions());
+
+        locks.withLocks(List.of(2L, 1L), () -> null);
+        assertEquals(3, locks.stats().getAcquisitions());
+        assertEquals(0, locks.stats().getContended());
+    }
+
+    @Test
+    void stripesAreTakenInAscendingOrder() throws Exception {
+        ResourceLockManager locks = new ResourceLockManager(STRIPES);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> locks.withLock(3L, () -> {
+            holding.countDown();
+            await(release);
+            return null;
+        }));
+        holding.await();
+
+        // Listed highest first, but stripe 0 must be taken before blocking on stripe 3
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> locks.withLocks(List.of(3L, 0L), () -> null));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (locks.stats().getAcquisitions() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(3, locks.stats().getAcquisitions());
+        CompletableFuture<Void> probe = CompletableFuture.runAsync(() -> locks.withLock(0L, () -> null));
+        assertThrows(TimeoutException.class, () -> probe.get(100, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        writer.get(5, TimeUnit.SECONDS);
+        probe.get(5, TimeUnit.SECONDS);
+
+        ResourceLockManager.LockStats stats = locks.stats();
+        assertEquals(4, stats.getAcquisitions());
+        assertEquals(2, stats.getContended());
+        assertTrue(stats.getMaxWaitMillis() >= stats.getAverageWaitMillis());
+        assertTrue(stats.getAverageWaitMillis() > 0);
+    }
+
+    @Test
+    void stripeCountMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new ResourceLockManager(6));
+        assertThrows(IllegalArgumentException.class, () -> new ResourceLockManager(0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.smartbooking;
+
+import com.smartbooking.service.StartupTimings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StartupTimingsTests {
+    @Test
+    void phasesAndMilestonesAreRecordedInOrder() {
+        StartupTimings timings = new StartupTimings();
+
+        String result = timings.time("schema", () -> "done");
+        timings.time("wiring", () -> { });
+        timings.mark("ready");
+
+        assertEquals("done", result);
+        assertEquals("[schema, wiring]", timings.getPhases().keySet().toString());
+        assertTrue(timings.getMilestones().get("ready") >= 0);
+        assertTrue(timings.summary().contains("ready@"));
+    }
+}
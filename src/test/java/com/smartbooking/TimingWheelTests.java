@@ -0,0 +1,41 @@
+package com.smartbooking;
+
+import com.smartbooking.util.HashedTimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTests {
+    @Test
+    void tasksFireOnlyOnceTheirDeadlineHasPassed() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(1000, 8, 0);
+        wheel.schedule("a", 2500);
+
+        assertTrue(wheel.advance(2000).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(3000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void tasksBeyondOneRotationWaitForTheirRound() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(1000, 8, 0);
+        wheel.schedule("near", 3000);
+        wheel.schedule("far", 3000 + 8 * 1000 * 2);
+
+        assertEquals(List.of("near"), wheel.advance(3000));
+        assertTrue(wheel.advance(18000).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(19000));
+    }
+
+    @Test
+    void overdueTasksFireOnTheNextAdvance() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(1000, 8, 0);
+        wheel.advance(10000);
+        wheel.schedule("late", 1000);
+
+        assertEquals(List.of("late"), wheel.advance(10000));
+    }
+}
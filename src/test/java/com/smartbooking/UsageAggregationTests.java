@@ -0,0 +1,75 @@
+package com.smartbooking;
+
+import com.smartbooking.domain.ResourceType;
+import com.smartbooking.domain.UsageAggregate;
+import com.smartbooking.domain.UsageAggregate.Scope;
+import com.smartbooking.domain.UsageChange;
+import com.smartbooking.domain.UsageGranularity;
+import com.smartbooking.service.OccupancyHeatmap;
+import com.smartbooking.service.UsageAggregator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class UsageAggregationTests {
+    @Test
+    void bookedMinutesAreSplitAcrossHourBuckets() {
+        // Sunday 23:30 to Monday 01:15 crosses an hour, a day and a week boundary
+        LocalDateTime start = LocalDateTime.of(2025, 3, 9, 23, 30);
+        UsageChange paid = new UsageChange(7L, start, start.plusMinutes(105), 1, 0.0);
+
+        List<UsageAggregate> deltas = UsageAggregator.expand(paid, "STUDIO");
+
+        List<UsageAggregate> hours = deltas.stream()
+                .filter(d -> d.getScope() == Scope.RESOURCE && d.getGranularity() == UsageGranularity.HOUR).toList();
+        assertEquals(3, hours.size());
+        assertEquals(30, hours.get(0).getBookedMinutes());
+        assertEquals(1, hours.get(0).getBookings());
+        assertEquals(60, hours.get(1).getBookedMinutes());
+        assertEquals(0, hours.get(1).getBookings());
+        assertEquals(15, hours.get(2).getBookedMinutes());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 1, 0), hours.get(2).getBucketStart());
+
+        List<UsageAggregate> weeks = deltas.stream()
+                .filter(d -> d.getScope() == Scope.TYPE && d.getGranularity() == UsageGranularity.WEEK).toList();
+        assertEquals(2, weeks.size());
+        assertEquals(LocalDateTime.of(2025, 3, 3, 0, 0), weeks.get(0).getBucketStart());
+        assertEquals(30, weeks.get(0).getBookedMinutes());
+        assertEquals(75, weeks.get(1).getBookedMinutes());
+    }
+
+    @Test
+    void refundsOnlyTouchTheStartBucketAndSurviveTheOutbox() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 10, 9, 0);
+        UsageChange refund = UsageChange.parse(new UsageChange(7L, start, start.plusHours(3), 0, -12.5).encode());
+
+        List<UsageAggregate> deltas = UsageAggregator.expand(refund, null);
+
+        assertEquals(UsageGranularity.values().length, deltas.size());
+        for (UsageAggregate delta : deltas) {
+            assertEquals(Scope.RESOURCE, delta.getScope());
+            assertEquals(0, delta.getBookedMinutes());
+            assertEquals(-12.5, delta.getRevenue());
+        }
+        assertEquals(0.25, deltas.get(0).plus(15, 0, 0.0).withCapacity(60).getUtilization());
+    }
+
+    @Test
+    void heatmapCellsFollowPaidAndCancelledBookings() {
+        OccupancyHeatmap heatmap = new OccupancyHeatmap(null, null);
+        LocalDateTime monday = LocalDateTime.of(2025, 3, 10, 9, 30);
+
+        heatmap.apply(new UsageChange(1L, monday, monday.plusHours(1), 1, 0.0), ResourceType.STUDIO);
+        heatmap.apply(new UsageChange(2L, monday.plusDays(7), monday.plusDays(7).plusMinutes(30), 1, 0.0),
+                ResourceType.STUDIO);
+        heatmap.apply(new UsageChange(1L, monday, monday.plusHours(1), -1, 0.0), ResourceType.STUDIO);
+
+        int[][] studio = heatmap.minutes(ResourceType.STUDIO);
+        assertEquals(30, studio[0][9]);
+        assertEquals(0, studio[0][10]);
+        assertEquals(0, heatmap.minutes(ResourceType.MUSIC_ROOM)[0][9]);
+    }
+}
@@ -0,0 +1,44 @@
+package com.smartbooking;
+
+import com.smartbooking.domain.WaitlistEntry;
+import com.smartbooking.domain.WaitlistStatus;
+import com.smartbooking.service.WaitlistIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WaitlistIndexTests {
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    @Test
+    void candidatesOverlapReleasedSlotInRequestOrder() {
+        WaitlistIndex index = new WaitlistIndex();
+        index.add(entry(3, 1, NINE.plusHours(1), NINE.plusHours(2)));
+        index.add(entry(1, 1, NINE.minusHours(3), NINE.plusMinutes(30)));
+        index.add(entry(2, 1, NINE.minusHours(2), NINE));
+        index.add(entry(4, 2, NINE, NINE.plusHours(1)));
+
+        List<WaitlistEntry> candidates = index.candidates(1, NINE, NINE.plusHours(2));
+
+        assertEquals(List.of(1L, 3L), candidates.stream().map(WaitlistEntry::getId).toList());
+    }
+
+    @Test
+    void removedEntriesAreNoLongerMatched() {
+        WaitlistIndex index = new WaitlistIndex();
+        WaitlistEntry entry = entry(1, 1, NINE, NINE.plusHours(1));
+        index.add(entry);
+        index.remove(entry);
+
+        assertTrue(index.candidates(1, NINE, NINE.plusHours(1)).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    private static WaitlistEntry entry(long id, long resourceId, LocalDateTime start, LocalDateTime end) {
+        return new WaitlistEntry(id, 1, resourceId, start, end, WaitlistStatus.WAITING, null, NINE.minusDays(1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.smartbooking.bench;
+
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.util.EpochMinutes;
+import com.smartbooking.util.IntervalIndex;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Retained heap of one million cached bookings: as {@link Booking} objects read from the database, where
+ * every row parses its own {@link LocalDateTime}s, and as the {@link EpochMinutes} intervals the conflict
+ * index keeps. Each side is measured as the growth of the used heap after forced collections, so the
+ * numbers are approximate but stable from run to run.
+ *
+ * Run with {@code mvn -Pbench verify -Dbench.class=com.smartbooking.bench.BookingFootprintBenchmark}; no
+ * database is needed. Give it some room, e.g. {@code MAVEN_OPTS=-Xmx2g}.
+ */
+public class BookingFootprintBenchmark {
+    private static final int BOOKINGS = 1_000_000;
+    private static final LocalDateTime FIRST = LocalDateTime.of(2099, 1, 1, 8, 0);
+
+    // Keeps the structure being measured reachable
+    private static volatile Object held;
+
+    public static void main(String[] args) {
+        long bookings = retained(() -> {
+            List<Booking> list = new ArrayList<>(BOOKINGS);
+            for (int i = 0; i < BOOKINGS; i++) {
+                LocalDateTime start = LocalDateTime.parse(slotStart(i).toString());
+                list.add(new Booking(i, i % 5000, i % 200, start, LocalDateTime.parse(start.plusHours(1).toString()),
+                        20.0, BookingStatus.PAID, LocalDateTime.parse(FIRST.minusDays(30).toString())));
+            }
+            return list;
+        });
+        long minutes = retained(() -> {
+            IntervalIndex.Builder builder = new IntervalIndex.Builder();
+            for (int i = 0; i < BOOKINGS; i++) {
+                int start = EpochMinutes.of(slotStart(i));
+                builder.add(start, start + 60, IntervalIndex.NEVER);
+            }
+            return builder.build();
+        });
+        System.out.printf("%-24s %8.1f MB %6.1f bytes/booking%n", "Booking objects", bookings / 1e6,
+                (double) bookings / BOOKINGS);
+        System.out.printf("%-24s %8.1f MB %6.1f bytes/booking%n", "epoch-minute intervals", minutes / 1e6,
+                (double) minutes / BOOKINGS);
+    }
+
+    private static LocalDateTime slotStart(int i) {
+        return FIRST.plusMinutes(30L * i);
+    }
+
+    private static long retained(Supplier<Object> build) {
+        long before = usedAfterGc();
+        held = build.get();
+        long after = usedAfterGc();
+        held = null;
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,101 @@
+package com.smartbooking.bench;
+
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.util.EpochMinutes;
+import com.smartbooking.util.IntervalIndex;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Time and heap allocation per conflict check, in the style of a JMH {@code -prof gc} run: the
+ * {@link IntervalIndex} probe used on the booking path against the old check, which mapped every
+ * overlapping row to a {@link Booking} (parsing its timestamps) only to ask whether the list was empty.
+ * Both run against the same day of half-hour bookings on one resource, with probes alternating between
+ * free and taken slots.
+ *
+ * Run with {@code mvn -Pbench verify -Dbench.class=com.smartbooking.bench.ConflictCheckBenchmark}; no
+ * database is needed. Allocation is read from the JVM's per-thread counter, so a result near zero bytes/op
+ * means the path allocates nothing once compiled.
+ */
+public class ConflictCheckBenchmark {
+    private static final int BOOKINGS = 48;
+    private static final int PROBES = 1024;
+    private static final int WARMUP_OPS = 2_000_000;
+    private static final int MEASURED_OPS = 10_000_000;
+    private static final LocalDateTime DAY = LocalDateTime.of(2099, 1, 1, 0, 0);
+
+    private static volatile boolean sink;
+
+    public static void main(String[] args) {
+        // Every other half hour is booked
+        IntervalIndex.Builder builder = new IntervalIndex.Builder();
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i += 2) {
+            LocalDateTime start = DAY.plusMinutes(30L * i);
+            LocalDateTime end = start.plusMinutes(30);
+            builder.add(EpochMinutes.of(start), EpochMinutes.of(end), IntervalIndex.NEVER);
+            rows.add(new String[] { start.toString(), end.toString() });
+        }
+        IntervalIndex index = builder.build();
+
+        LocalDateTime[] probeStarts = new LocalDateTime[PROBES];
+        LocalDateTime[] probeEnds = new LocalDateTime[PROBES];
+        // The rows the old overlap query returned for each probe, still as the driver hands them over
+        List<List<String[]>> results = new ArrayList<>(PROBES);
+        for (int i = 0; i < PROBES; i++) {
+            probeStarts[i] = DAY.plusMinutes(30L * (i % BOOKINGS));
+            probeEnds[i] = probeStarts[i].plusMinutes(30);
+            List<String[]> result = new ArrayList<>();
+            for (String[] row : rows) {
+                if (row[0].compareTo(probeEnds[i].toString()) < 0 && row[1].compareTo(probeStarts[i].toString()) > 0) {
+                    result.add(row);
+                }
+            }
+            results.add(result);
+        }
+        int now = EpochMinutes.of(DAY.minusDays(1));
+
+        report("interval index", i -> index.overlaps(EpochMinutes.of(probeStarts[i]),
+                EpochMinutes.of(probeEnds[i]), now));
+        report("mapped bookings", i -> !mapOverlaps(results.get(i)).isEmpty());
+    }
+
+    /**
+     * What {@code findOverlaps(...).isEmpty()} did per check once the rows were fetched.
+     */
+    private static List<Booking> mapOverlaps(List<String[]> rows) {
+        List<Booking> overlaps = new ArrayList<>();
+        for (String[] row : rows) {
+            LocalDateTime start = LocalDateTime.parse(row[0]);
+            overlaps.add(new Booking(0L, 0L, 0L, start, LocalDateTime.parse(row[1]), 0.0, BookingStatus.PAID, start));
+        }
+        return overlaps;
+    }
+
+    private static void report(String name, IntPredicate check) {
+        run(check, WARMUP_OPS);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long started = System.nanoTime();
+        run(check, MEASURED_OPS);
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.printf("%-16s %8.1f ns/op %10.2f bytes/op%n", name, (double) elapsed / MEASURED_OPS,
+                (double) allocated / MEASURED_OPS);
+    }
+
+    private static void run(IntPredicate check, int ops) {
+        boolean any = false;
+        for (int i = 0; i < ops; i++) {
+            any ^= check.test(i & (PROBES - 1));
+        }
+        sink = any;
+    }
+}
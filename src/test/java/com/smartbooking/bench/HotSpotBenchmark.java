@@ -0,0 +1,33 @@
+package com.smartbooking.bench;
+
+import com.smartbooking.loadtest.HotSpotScenario;
+import com.smartbooking.persistence.Database;
+
+/**
+ * Stress run of the exam-week hot spot: {@code hotspot.users} users (default 200) race for the same studio
+ * slot for {@code hotspot.rounds} rounds (default 50), first with identical and then with overlapping
+ * timeslots. Reports throughput and tail latency of the conflict path and fails on any double booking.
+ *
+ * Run with {@code mvn -Pbench verify -Dbench.class=com.smartbooking.bench.HotSpotBenchmark} against a running
+ * database. The studio, users and bookings it creates are removed at the end.
+ */
+public class HotSpotBenchmark {
+    public static void main(String[] args) throws Exception {
+        Database database = new Database(
+                System.getProperty("smartbooking.db.url", "jdbc:postgresql://localhost:5432/smart_booking"),
+                "postgres", "postgres");
+        int users = Integer.getInteger("hotspot.users", 200);
+        int rounds = Integer.getInteger("hotspot.rounds", 50);
+        try (HotSpotScenario scenario = HotSpotScenario.open(database, users)) {
+            // One short run first so the JIT and connection pool are warm for the measured ones
+            scenario.run(5, false);
+            System.out.println("Identical:   " + scenario.run(rounds, false).summary());
+            System.out.println("Overlapping: " + scenario.run(rounds, true).summary());
+            long doubleBookings = scenario.doubleBookings();
+            if (doubleBookings != 0) {
+                throw new IllegalStateException(doubleBookings + " double bookings");
+            }
+            System.out.println("No double bookings.");
+        }
+    }
+}
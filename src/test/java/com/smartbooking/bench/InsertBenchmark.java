@@ -0,0 +1,90 @@
+package com.smartbooking.bench;
+
+import com.smartbooking.domain.Notification;
+import com.smartbooking.domain.Role;
+import com.smartbooking.domain.User;
+import com.smartbooking.persistence.Database;
+import com.smartbooking.persistence.DatabaseInitializer;
+import com.smartbooking.persistence.NotificationRepository;
+import com.smartbooking.persistence.UserRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Latency of a single-row insert that returns its id, before and after pooling: a fresh connection with
+ * {@code RETURN_GENERATED_KEYS} (the old repository code, copied here) against
+ * {@link NotificationRepository#create}, which reuses a pooled connection and its server-side prepared
+ * statement and gets the id from {@code INSERT ... RETURNING}.
+ *
+ * Run with {@code mvn -Pbench verify -Dbench.class=com.smartbooking.bench.InsertBenchmark} against a running
+ * database. The rows it writes belong to a throwaway user and are deleted at the end.
+ */
+public class InsertBenchmark {
+    private static final int WARMUP = 200;
+    private static final int MEASURED = 2_000;
+    private static final String USERNAME = "postgres";
+    private static final String PASSWORD = "postgres";
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("smartbooking.db.url", "jdbc:postgresql://localhost:5432/smart_booking");
+        Database database = new Database(url, USERNAME, PASSWORD);
+        new DatabaseInitializer().initialize(database);
+        User user = new UserRepository(database).create("bench-" + System.nanoTime(), "-", Role.CUSTOMER);
+        NotificationRepository notifications = new NotificationRepository(database);
+        try {
+            System.out.printf("%-36s %10s %10s %10s%n", "case", "mean us", "p50 us", "p99 us");
+            report("new connection, generated keys", () -> legacyCreate(url, user.getId()));
+            report("pooled, prepared, RETURNING", () -> notifications.create(
+                    new Notification(0, user.getId(), "benchmark", LocalDateTime.now())).getId());
+        } finally {
+            try (Connection connection = database.getConnection();
+                    PreparedStatement deleteNotifications = connection.prepareStatement(
+                            "DELETE FROM notifications WHERE user_id = ?");
+                    PreparedStatement deleteUser = connection.prepareStatement("DELETE FROM users WHERE id = ?")) {
+                deleteNotifications.setLong(1, user.getId());
+                deleteNotifications.executeUpdate();
+                deleteUser.setLong(1, user.getId());
+                deleteUser.executeUpdate();
+            }
+        }
+    }
+
+    private static void report(String name, Insert insert) throws SQLException {
+        for (int i = 0; i < WARMUP; i++) {
+            insert.run();
+        }
+        long[] nanos = new long[MEASURED];
+        for (int i = 0; i < MEASURED; i++) {
+            long started = System.nanoTime();
+            insert.run();
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-36s %10.1f %10.1f %10.1f%n", name, Arrays.stream(nanos).average().orElse(0) / 1e3,
+                nanos[MEASURED / 2] / 1e3, nanos[MEASURED * 99 / 100] / 1e3);
+    }
+
+    private static long legacyCreate(String url, long userId) throws SQLException {
+        String sql = "INSERT INTO notifications (user_id, message, created_at) VALUES (?, ?, ?)";
+        try (Connection connection = DriverManager.getConnection(url, USERNAME, PASSWORD);
+                PreparedStatement stmt = connection.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
+            stmt.setLong(1, userId);
+            stmt.setString(2, "benchmark");
+            stmt.setString(3, LocalDateTime.now().toString());
+            stmt.executeUpdate();
+            ResultSet keys = stmt.getGeneratedKeys();
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+
+    private interface Insert {
+        long run() throws SQLException;
+    }
+}
@@ -0,0 +1,149 @@
+package com.smartbooking.bench;
+
+import com.smartbooking.domain.Booking;
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.domain.Resource;
+import com.smartbooking.domain.ResourceType;
+import com.smartbooking.domain.Role;
+import com.smartbooking.domain.User;
+import com.smartbooking.persistence.BookingRepository;
+import com.smartbooking.persistence.Database;
+import com.smartbooking.persistence.DatabaseInitializer;
+import com.smartbooking.persistence.ResourceRepository;
+import com.smartbooking.persistence.UserRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Read throughput (rows/sec) of the booking mappers, before and after the switch from {@code SELECT *}
+ * with by-name column lookups to explicit column lists read by position. The "before" queries and
+ * mappers are copies of the old repository code; the "after" side calls the repositories.
+ *
+ * Run with {@code mvn -Pbench verify} against a running database (override the URL with
+ * {@code -Dsmartbooking.db.url=...}). The benchmark data is inserted in a transaction that is rolled
+ * back at the end, so nothing is left behind.
+ */
+public class MapperBenchmark {
+    private static final int ROWS = 20_000;
+    private static final int SLOTS_PER_WINDOW = 28 * 48;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+    private static final LocalDateTime WINDOW_START = LocalDateTime.of(2099, 1, 1, 0, 0);
+    private static final LocalDateTime WINDOW_END = WINDOW_START.plusDays(28);
+
+    public static void main(String[] args) {
+        Database database = new Database(
+                System.getProperty("smartbooking.db.url", "jdbc:postgresql://localhost:5432/smart_booking"),
+                "postgres", "postgres");
+        new DatabaseInitializer().initialize(database);
+        try {
+            database.inTransaction(() -> {
+                run(database);
+                throw new Rollback();
+            });
+        } catch (Rollback expected) {
+            // Benchmark data is discarded
+        }
+    }
+
+    private static void run(Database database) {
+        User user = new UserRepository(database).create("bench-" + System.nanoTime(), "-", Role.CUSTOMER);
+        Resource resource = new ResourceRepository(database).create(new Resource(0, "Benchmark Room",
+                ResourceType.STUDY_ROOM_SMALL, 8.0, "DEFAULT", "FLEXIBLE", "AUTO"));
+        BookingRepository bookings = new BookingRepository(database);
+
+        List<Booking> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime start = WINDOW_START.plusMinutes(30L * (i % SLOTS_PER_WINDOW));
+            rows.add(new Booking(0, user.getId(), resource.getId(), start, start.plusMinutes(30), 4.0,
+                    BookingStatus.PAID, LocalDateTime.now()));
+        }
+        for (int from = 0; from < ROWS; from += 1000) {
+            bookings.createAll(rows.subList(from, Math.min(from + 1000, ROWS)));
+        }
+
+        System.out.printf("%-40s %12s%n", "case", "rows/sec");
+        report("bookings by user, SELECT * by name", () -> legacyFindByUser(database, user.getId()));
+        report("bookings by user, columns by position", () -> bookings.findByUser(user.getId()).size());
+        report("timetable, JOIN users, by name", () -> legacyTimetable(database, resource.getId()));
+        report("timetable, slot projection", () -> bookings.findActiveByResource(resource.getId(),
+                WINDOW_START, WINDOW_END).size());
+    }
+
+    private static void report(String name, IntSupplier round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.getAsInt();
+        }
+        long rows = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            rows += round.getAsInt();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%-40s %12.0f%n", name, rows / seconds);
+    }
+
+    private static int legacyFindByUser(Database database, long userId) {
+        return legacyQuery(database, "SELECT * FROM bookings WHERE user_id = ? ORDER BY created_at DESC", false,
+                stmt -> stmt.setLong(1, userId));
+    }
+
+    private static int legacyTimetable(Database database, long resourceId) {
+        String sql = "SELECT b.*, u.username FROM bookings b JOIN users u ON b.user_id = u.id "
+                + "WHERE b.resource_id = ? AND b.status IN (?, ?, ?, ?) "
+                + "AND b.start_time > ? AND b.start_time < ? AND b.end_time > ? "
+                + "AND (b.expires_at IS NULL OR b.expires_at > ?) "
+                + "ORDER BY b.start_time ASC";
+        return legacyQuery(database, sql, true, stmt -> {
+            stmt.setLong(1, resourceId);
+            stmt.setString(2, BookingStatus.REQUESTED.name());
+            stmt.setString(3, BookingStatus.APPROVED.name());
+            stmt.setString(4, BookingStatus.PAID.name());
+            stmt.setString(5, BookingStatus.ACTIVE.name());
+            stmt.setString(6, WINDOW_START.minusDays(31).toString());
+            stmt.setString(7, WINDOW_END.toString());
+            stmt.setString(8, WINDOW_START.toString());
+            stmt.setString(9, LocalDateTime.now().toString());
+        });
+    }
+
+    private static int legacyQuery(Database database, String sql, boolean withUsername, Binder binder) {
+        List<Booking> bookings = new ArrayList<>();
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            binder.bind(stmt);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                String expiresAt = rs.getString("expires_at");
+                bookings.add(new Booking(
+                        rs.getLong("id"),
+                        rs.getLong("user_id"),
+                        withUsername ? rs.getString("username") : null,
+                        rs.getLong("resource_id"),
+                        LocalDateTime.parse(rs.getString("start_time")),
+                        LocalDateTime.parse(rs.getString("end_time")),
+                        rs.getDouble("price"),
+                        BookingStatus.valueOf(rs.getString("status")),
+                        LocalDateTime.parse(rs.getString("created_at")),
+                        expiresAt != null ? LocalDateTime.parse(expiresAt) : null));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Benchmark query failed", ex);
+        }
+        return bookings.size();
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private static class Rollback extends RuntimeException {
+    }
+}
@@ -0,0 +1,219 @@
+package com.smartbooking.loadtest;
+
+import com.smartbooking.domain.BookingStatus;
+import com.smartbooking.domain.Resource;
+import com.smartbooking.domain.ResourceType;
+import com.smartbooking.domain.Role;
+import com.smartbooking.domain.Timeslot;
+import com.smartbooking.domain.state.BookingStateFactory;
+import com.smartbooking.persistence.AuditLogRepository;
+import com.smartbooking.persistence.BookingRepository;
+import com.smartbooking.persistence.Database;
+import com.smartbooking.persistence.DatabaseInitializer;
+import com.smartbooking.persistence.NotificationRepository;
+import com.smartbooking.persistence.PaymentRepository;
+import com.smartbooking.persistence.ResourceRepository;
+import com.smartbooking.persistence.UserRepository;
+import com.smartbooking.service.AuditService;
+import com.smartbooking.service.BookingFactory;
+import com.smartbooking.service.BookingService;
+import com.smartbooking.service.NotificationService;
+import com.smartbooking.service.PaymentService;
+import com.smartbooking.service.PolicyFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exam-week hot spot: many users released at the same instant, all trying to book the same 9:00 slot of one
+ * studio. Each round targets a fresh day so that every round races for a free slot. The scenario owns a
+ * dedicated studio and users, created on {@link #open} and removed again by {@link #close}.
+ */
+public class HotSpotScenario implements AutoCloseable {
+    private static final String[] ACTIVE = {
+            BookingStatus.REQUESTED.name(), BookingStatus.APPROVED.name(), BookingStatus.PAID.name(),
+            BookingStatus.ACTIVE.name() };
+
+    private final Database database;
+    private final BookingService bookingService;
+    private final long resourceId;
+    private final List<Long> userIds;
+    private final LocalDate firstDay;
+
+    private HotSpotScenario(Database database, BookingService bookingService, long resourceId, List<Long> userIds) {
+        this.database = database;
+        this.bookingService = bookingService;
+        this.resourceId = resourceId;
+        this.userIds = userIds;
+        // Far enough ahead that repeated runs never meet existing bookings
+        this.firstDay = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(400, 4000));
+    }
+
+    public static HotSpotScenario open(Database database, int users) {
+        new DatabaseInitializer().initialize(database);
+        UserRepository userRepository = new UserRepository(database);
+        ResourceRepository resourceRepository = new ResourceRepository(database);
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        Resource studio = resourceRepository.create(new Resource(0, "Hot-spot Studio " + run, ResourceType.STUDIO,
+                20.0, "DEFAULT", "FLEXIBLE", "AUTO"));
+        List<Long> userIds = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userIds.add(userRepository.create("hotspot-" + run + "-" + i, "-", Role.CUSTOMER).getId());
+        }
+        BookingService bookingService = new BookingService(
+                new BookingRepository(database),
+                resourceRepository,
+                new PolicyFactory(),
+                new BookingFactory(),
+                new BookingStateFactory(),
+                new NotificationService(new NotificationRepository(database)),
+                new PaymentService(new PaymentRepository(database)),
+                new AuditService(new AuditLogRepository(database)));
+        return new HotSpotScenario(database, bookingService, studio.getId(), userIds);
+    }
+
+    /**
+     * Runs {@code rounds} races. In each, every user requests 9:00-10:00 at once, or with {@code overlapping}
+     * a one-hour slot starting anywhere between 8:15 and 9:45 in quarter-hour steps.
+     */
+    public Result run(int rounds, boolean overlapping) throws InterruptedException {
+        Result result = new Result();
+        ExecutorService pool = Executors.newFixedThreadPool(userIds.size());
+        try {
+            long started = System.nanoTime();
+            for (int round = 0; round < rounds; round++) {
+                LocalDateTime nine = firstDay.plusDays(result.rounds++).atTime(9, 0);
+                CountDownLatch gate = new CountDownLatch(1);
+                List<Future<?>> attempts = new ArrayList<>(userIds.size());
+                for (long userId : userIds) {
+                    LocalDateTime start = overlapping
+                            ? nine.plusMinutes(15L * ThreadLocalRandom.current().nextInt(-3, 4))
+                            : nine;
+                    attempts.add(pool.submit(() -> attempt(gate, userId, new Timeslot(start, start.plusHours(1)),
+                            result)));
+                }
+                gate.countDown();
+                for (Future<?> attempt : attempts) {
+                    try {
+                        attempt.get();
+                    } catch (ExecutionException ex) {
+                        throw new IllegalStateException(ex.getCause());
+                    }
+                }
+            }
+            result.elapsedNanos = System.nanoTime() - started;
+        } finally {
+            pool.shutdownNow();
+        }
+        return result;
+    }
+
+    private void attempt(CountDownLatch gate, long userId, Timeslot slot, Result result) {
+        try {
+            gate.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            bookingService.createBooking(userId, resourceId, slot);
+            result.booked.record((System.nanoTime() - started) / 1000);
+        } catch (IllegalStateException ex) {
+            result.conflicts.record((System.nanoTime() - started) / 1000);
+        } catch (RuntimeException ex) {
+            result.errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * Pairs of active bookings on the studio whose times intersect; anything but zero is a double booking.
+     */
+    public long doubleBookings() {
+        String sql = "SELECT count(*) FROM bookings a JOIN bookings b ON b.resource_id = a.resource_id "
+                + "AND a.id < b.id AND a.start_time < b.end_time AND b.start_time < a.end_time "
+                + "WHERE a.resource_id = ? AND a.status = ANY(?) AND b.status = ANY(?)";
+        try (Connection connection = database.getConnection();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, resourceId);
+            stmt.setArray(2, connection.createArrayOf("text", ACTIVE));
+            stmt.setArray(3, connection.createArrayOf("text", ACTIVE));
+            ResultSet rs = stmt.executeQuery();
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to count double bookings", ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        try (Connection connection = database.getConnection()) {
+            Long[] users = userIds.toArray(new Long[0]);
+            for (String sql : new String[] {
+                    "DELETE FROM bookings WHERE resource_id = ?",
+                    "DELETE FROM resources WHERE id = ?" }) {
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setLong(1, resourceId);
+                    stmt.executeUpdate();
+                }
+            }
+            for (String sql : new String[] {
+                    "DELETE FROM notifications WHERE user_id = ANY(?)",
+                    "DELETE FROM audit_log WHERE user_id = ANY(?)",
+                    "DELETE FROM users WHERE id = ANY(?)" }) {
+                try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                    stmt.setArray(1, connection.createArrayOf("bigint", users));
+                    stmt.executeUpdate();
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to remove hot-spot scenario data", ex);
+        }
+    }
+
+    public static final class Result {
+        private final LatencyHistogram booked = new LatencyHistogram();
+        private final LatencyHistogram conflicts = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+        private int rounds;
+        private long elapsedNanos;
+
+        public long bookedCount() {
+            return booked.count();
+        }
+
+        public long conflictCount() {
+            return conflicts.count();
+        }
+
+        public long errorCount() {
+            return errors.get();
+        }
+
+        public String summary() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format("%d rounds in %.2f s: %d booked, %d conflicts (%.0f attempts/s), %d errors; "
+                    + "conflict path p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms; "
+                    + "winning path p50 %.2f ms, max %.2f ms",
+                    rounds, seconds, booked.count(), conflicts.count(),
+                    (booked.count() + conflicts.count()) / seconds, errors.get(),
+                    conflicts.percentile(50) / 1000.0, conflicts.percentile(99) / 1000.0,
+                    conflicts.percentile(99.9) / 1000.0, conflicts.max() / 1000.0,
+                    booked.percentile(50) / 1000.0, booked.max() / 1000.0);
+        }
+    }
+}
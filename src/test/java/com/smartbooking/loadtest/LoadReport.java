@@ -0,0 +1,81 @@
+package com.smartbooking.loadtest;
+
+import com.smartbooking.loadtest.WorkloadMix.Operation;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-endpoint results of a load run. Response time is measured from when a request was scheduled to be
+ * sent, so time spent queued behind a slow server counts against it (coordinated omission); service time is
+ * measured from when it was actually sent.
+ */
+public class LoadReport {
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    public LoadReport() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public void record(Operation operation, int status, long intendedNanos, long sentNanos, long doneNanos) {
+        Stats s = stats.get(operation);
+        s.responseTime.record((doneNanos - intendedNanos) / 1000);
+        s.serviceTime.record((doneNanos - sentNanos) / 1000);
+        if (status >= 200 && status < 300) {
+            s.ok.incrementAndGet();
+        } else if (status >= 400 && status < 500) {
+            s.rejected.incrementAndGet();
+        } else {
+            s.failed.incrementAndGet();
+        }
+    }
+
+    public void recordFailure(Operation operation, long intendedNanos, long doneNanos) {
+        Stats s = stats.get(operation);
+        s.responseTime.record((doneNanos - intendedNanos) / 1000);
+        s.failed.incrementAndGet();
+    }
+
+    public long succeeded(Operation operation) {
+        return stats.get(operation).ok.get();
+    }
+
+    public void print(PrintStream out, double seconds) {
+        out.printf("%-32s %8s %8s %8s %8s %9s %9s %9s %9s %9s %11s%n", "endpoint", "count", "ok/s", "4xx",
+                "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        long total = 0;
+        long ok = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            long count = s.responseTime.count();
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            ok += s.ok.get();
+            out.printf("%-32s %8d %8.1f %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %11.1f%n",
+                    entry.getKey().getEndpoint(), count, s.ok.get() / seconds, s.rejected.get(), s.failed.get(),
+                    millis(s.responseTime.percentile(50)), millis(s.responseTime.percentile(90)),
+                    millis(s.responseTime.percentile(99)), millis(s.responseTime.percentile(99.9)),
+                    millis(s.responseTime.max()), millis(s.serviceTime.percentile(99)));
+        }
+        out.printf("%nTotal: %d requests, %.1f ok/s; bookings created: %.1f/s%n", total, ok / seconds,
+                succeeded(Operation.BOOK) / seconds);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Stats {
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final AtomicLong ok = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+    }
+}
@@ -0,0 +1,289 @@
+package com.smartbooking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartbooking.loadtest.WorkloadMix.Operation;
+import com.smartbooking.service.AppBootstrap;
+import com.smartbooking.service.StartupTimings;
+import com.smartbooking.web.WebServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the HTTP API. Requests are issued at a fixed average rate (Poisson or
+ * evenly spaced arrivals) whatever the server's response times, with operations drawn from a
+ * {@link WorkloadMix}. Latency is measured from each request's scheduled start, so a server that falls
+ * behind shows up in the percentiles instead of silently lowering the offered load.
+ *
+ * Run with {@code mvn -Ploadtest verify}. Without {@code -Dloadtest.url} the web server is started in this
+ * JVM against the local database; point it at a separately started server for numbers that do not share
+ * a CPU with the generator. Other settings: {@code loadtest.rate} (requests/s), {@code loadtest.duration}
+ * and {@code loadtest.warmup} (s), {@code loadtest.users}, {@code loadtest.mix},
+ * {@code loadtest.arrivals} ({@code poisson} or {@code uniform}) and {@code loadtest.maxInFlight}.
+ */
+public class LoadTest {
+    private static final int EMBEDDED_PORT = 18081;
+    private static final String PASSWORD = "loadtest";
+
+    private final String baseUrl;
+    private final WorkloadMix mix;
+    private final HttpClient client = HttpClient.newBuilder().build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final List<Long> resourceIds = new ArrayList<>();
+    private final Queue<Map.Entry<Long, VirtualUser>> pendingApproval = new ConcurrentLinkedQueue<>();
+    private String adminId;
+
+    LoadTest(String baseUrl, WorkloadMix mix) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("loadtest.url");
+        if (url == null || url.isBlank()) {
+            StartupTimings timings = new StartupTimings();
+            WebServer.start(AppBootstrap.initializeAsync(timings), timings, EMBEDDED_PORT);
+            url = "http://localhost:" + EMBEDDED_PORT;
+        }
+        LoadTest test = new LoadTest(url, WorkloadMix.parse(System.getProperty("loadtest.mix", WorkloadMix.DEFAULT)));
+        test.awaitReady();
+        test.setUp(Integer.getInteger("loadtest.users", 50));
+        test.run(Double.parseDouble(System.getProperty("loadtest.rate", "100")),
+                Integer.getInteger("loadtest.duration", 60), Integer.getInteger("loadtest.warmup", 10),
+                "uniform".equals(System.getProperty("loadtest.arrivals")),
+                Integer.getInteger("loadtest.maxInFlight", 1000));
+        // The embedded server's threads would keep the JVM alive
+        System.exit(0);
+    }
+
+    void awaitReady() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            try {
+                if (send("GET", "/api/health/ready", null, null).statusCode() == 200) {
+                    return;
+                }
+            } catch (Exception ex) {
+                // Not listening yet
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Server at " + baseUrl + " did not become ready");
+    }
+
+    /**
+     * Registers throwaway customers for this run and looks up the admin account and the resources.
+     */
+    void setUp(int userCount) throws Exception {
+        adminId = login("admin", "admin123");
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < userCount; i++) {
+            HttpResponse<String> registered = send("POST", "/api/auth/register",
+                    "{\"username\":\"lt-" + run + "-" + i + "\",\"password\":\"" + PASSWORD + "\"}", null);
+            if (registered.statusCode() != 200) {
+                throw new IllegalStateException("Could not register load test user: " + registered.body());
+            }
+            users.add(new VirtualUser(mapper.readTree(registered.body()).get("id").asText()));
+        }
+        for (JsonNode resource : mapper.readTree(send("GET", "/api/resources", null, adminId).body())) {
+            resourceIds.add(resource.get("id").asLong());
+        }
+    }
+
+    LoadReport run(double rate, int durationSeconds, int warmupSeconds, boolean uniform, int maxInFlight)
+            throws InterruptedException {
+        LoadReport warmup = new LoadReport();
+        LoadReport report = new LoadReport();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Random random = new Random();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        System.out.printf("Offering %.1f requests/s to %s for %d s after %d s warm-up%n", rate, baseUrl,
+                durationSeconds, warmupSeconds);
+        long next = start;
+        while (next < end) {
+            long now;
+            while ((now = System.nanoTime()) < next) {
+                LockSupport.parkNanos(next - now);
+            }
+            // Waiting for a permit delays the send, not the schedule, so the wait counts as latency
+            inFlight.acquire();
+            long intended = next;
+            issue(mix.next(random), intended, intended < measureFrom ? warmup : report)
+                    .whenComplete((ignored, error) -> inFlight.release());
+            double gap = uniform ? meanGapNanos : -Math.log(1 - random.nextDouble()) * meanGapNanos;
+            next += (long) gap;
+        }
+        inFlight.acquire(maxInFlight);
+
+        System.out.println();
+        report.print(System.out, durationSeconds);
+        return report;
+    }
+
+    private CompletableFuture<Void> issue(Operation operation, long intended, LoadReport report) {
+        Call call = callFor(operation);
+        long sent = System.nanoTime();
+        return client.sendAsync(call.request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long done = System.nanoTime();
+                    if (error != null) {
+                        report.recordFailure(call.operation, intended, done);
+                        return null;
+                    }
+                    report.record(call.operation, response.statusCode(), intended, sent, done);
+                    if (response.statusCode() == 200) {
+                        call.onSuccess(response.body());
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Builds the request for {@code operation}. Operations that need a booking in a particular state fall
+     * back to a timetable view when there is none yet, and are reported as such.
+     */
+    private Call callFor(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        VirtualUser user = users.get(random.nextInt(users.size()));
+        switch (operation) {
+            case BROWSE:
+                return new Call(operation, request("GET", "/api/resources", null, user.id), null);
+            case BOOK: {
+                LocalDateTime slotStart = LocalDate.now().plusDays(random.nextInt(30, 400))
+                        .atTime(random.nextInt(6, 21), 0);
+                String body = "{\"resourceId\":" + randomResource() + ",\"start\":\"" + slotStart + "\",\"end\":\""
+                        + slotStart.plusHours(1) + "\"}";
+                return new Call(operation, request("POST", "/api/bookings", body, user.id), response -> {
+                    JsonNode booking = mapper.readTree(response);
+                    long bookingId = booking.get("id").asLong();
+                    user.owned.add(bookingId);
+                    if ("REQUESTED".equals(booking.get("status").asText())) {
+                        pendingApproval.add(Map.entry(bookingId, user));
+                    } else {
+                        user.payable.add(bookingId);
+                    }
+                });
+            }
+            case PAY: {
+                Long bookingId = user.payable.poll();
+                if (bookingId != null) {
+                    String body = "{\"userId\":" + user.id + ",\"method\":\"CARD\"}";
+                    return new Call(operation, request("POST", "/api/bookings/" + bookingId + "/pay", body, user.id),
+                            null);
+                }
+                break;
+            }
+            case CANCEL: {
+                Long bookingId = user.owned.poll();
+                if (bookingId != null) {
+                    user.payable.remove(bookingId);
+                    return new Call(operation, request("POST", "/api/bookings/" + bookingId + "/cancel?userId="
+                            + user.id, "", user.id), null);
+                }
+                break;
+            }
+            case APPROVE: {
+                Map.Entry<Long, VirtualUser> pending = pendingApproval.poll();
+                if (pending != null) {
+                    return new Call(operation, request("POST", "/api/bookings/" + pending.getKey() + "/approve", "",
+                            adminId), response -> pending.getValue().payable.add(pending.getKey()));
+                }
+                break;
+            }
+            default:
+                break;
+        }
+        LocalDate weekStart = LocalDate.now().plusDays(random.nextInt(0, 56));
+        String path = "/api/bookings?resourceId=" + randomResource() + "&start=" + weekStart.atStartOfDay()
+                + "&end=" + weekStart.plusDays(7).atStartOfDay();
+        return new Call(Operation.TIMETABLE, request("GET", path, null, user.id), null);
+    }
+
+    private long randomResource() {
+        return resourceIds.get(ThreadLocalRandom.current().nextInt(resourceIds.size()));
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpResponse<String> response = send("POST", "/api/auth/login",
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}", null);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + username + " failed: " + response.body());
+        }
+        return mapper.readTree(response.body()).get("id").asText();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String userId) throws Exception {
+        return client.send(request(method, path, body, userId), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path, String body, String userId) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .header("Content-Type", "application/json");
+        if (userId != null) {
+            request.header("X-User-Id", userId);
+        }
+        return request.build();
+    }
+
+    private interface SuccessHandler {
+        void accept(String body) throws Exception;
+    }
+
+    private static final class Call {
+        private final Operation operation;
+        private final HttpRequest request;
+        private final SuccessHandler onSuccess;
+
+        private Call(Operation operation, HttpRequest request, SuccessHandler onSuccess) {
+            this.operation = operation;
+            this.request = request;
+            this.onSuccess = onSuccess;
+        }
+
+        private void onSuccess(String body) {
+            if (onSuccess == null) {
+                return;
+            }
+            try {
+                onSuccess.accept(body);
+            } catch (Exception ex) {
+                System.err.println("Unexpected " + operation + " response: " + ex.getMessage());
+            }
+        }
+    }
+
+    private static final class VirtualUser {
+        private final String id;
+        private final Queue<Long> owned = new ConcurrentLinkedQueue<>();
+        private final Queue<Long> payable = new ConcurrentLinkedQueue<>();
+
+        private VirtualUser(String id) {
+            this.id = id;
+        }
+    }
+}
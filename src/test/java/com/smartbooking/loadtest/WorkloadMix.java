@@ -0,0 +1,76 @@
+package com.smartbooking.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Relative weights of the operations a load run issues, e.g. {@code browse=30,timetable=40,book=15,pay=8,
+ * cancel=5,approve=2}. Operations left out get weight zero.
+ */
+public class WorkloadMix {
+    public static final String DEFAULT = "browse=30,timetable=40,book=15,pay=8,cancel=5,approve=2";
+
+    public enum Operation {
+        BROWSE("GET /api/resources"),
+        TIMETABLE("GET /api/bookings?resourceId"),
+        BOOK("POST /api/bookings"),
+        PAY("POST /api/bookings/{id}/pay"),
+        CANCEL("POST /api/bookings/{id}/cancel"),
+        APPROVE("POST /api/bookings/{id}/approve");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+    }
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulative;
+
+    public WorkloadMix(Map<Operation, Integer> weights) {
+        this.weights = new EnumMap<>(weights);
+        this.operations = this.weights.keySet().toArray(new Operation[0]);
+        this.cumulative = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            int weight = this.weights.get(operations[i]);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + operations[i] + " must not be negative");
+            }
+            sum += weight;
+            cumulative[i] = sum;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Workload mix needs at least one positive weight");
+        }
+    }
+
+    public static WorkloadMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got '" + part + "'");
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        return new WorkloadMix(weights);
+    }
+
+    public Operation next(Random random) {
+        int pick = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (pick < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+}
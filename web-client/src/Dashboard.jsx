@@ -94,7 +94,14 @@ function Dashboard({ user, resourceType }) {
             } catch (e) { console.error(e) }
         }
         fetchResourceBookings()
-        // Poll every 30s?
+
+        // Released slots (cancellations, rejections, expired holds) are pushed by the server
+        const stream = new EventSource(`/api/bookings/stream?userId=${user.id}`)
+        stream.addEventListener('slot-released', (event) => {
+            const released = JSON.parse(event.data)
+            if (released.resourceId === selectedResource) fetchResourceBookings()
+        })
+        return () => stream.close()
     }, [selectedResource, bookings, viewDate]) // Re-fetch when my bookings change too
 
     useEffect(() => {